@@ -0,0 +1,114 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rules queries on ChessGame, one position from {@link Positions} at a time.
+ * Run with {@code -prof gc} to get allocation rates next to the ns/op figures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    @Param({"OPENING", "RUY_LOPEZ", "MIDDLEGAME", "TACTICAL", "ROOK_ENDGAME", "QUEEN_ENDGAME",
+            "CHECKMATE", "STALEMATE"})
+    public Positions position;
+
+    private ChessGame game;
+    private List<ChessPosition> teamSquares;
+    private ChessMove firstMove;
+
+    @Setup
+    public void setUp() {
+        game = position.load();
+        teamSquares = new ArrayList<>();
+        ChessBoard board = game.getBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition square = ChessPosition.of(row, col);
+                ChessPiece piece = board.getPiece(square);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    teamSquares.add(square);
+                }
+            }
+        }
+        firstMove = game.legalMoves().stream().findFirst().orElse(null);
+    }
+
+    /**
+     * Fails the run if a benchmark left the game in another position than it
+     * started in, which would mean the figures were measured on that position
+     */
+    @TearDown(Level.Trial)
+    public void checkPosition() {
+        String expected = position.load().toFen();
+        if (!game.toFen().equals(expected)) {
+            throw new IllegalStateException("Benchmark changed " + position + " from " + expected + " to "
+                    + game.toFen());
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition square : teamSquares) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    @Benchmark
+    public Object legalMoves() {
+        return game.legalMoves();
+    }
+
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        if (firstMove == null) {
+            return game;
+        }
+        game.makeMove(firstMove);
+        game.unmakeMove();
+        return game;
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import dataaccess.DataAccessException;
+import dataaccess.MySqlDataAccess;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call latency of the MySQL data access calls a request makes, with and
+ * without prepared statement caching ({@code statementCacheSize} 0 turns off both
+ * the pool's statement cache and the driver's server-side statements).
+ * <p>
+ * Needs a MySQL-compatible server, such as a local MySQL or MariaDB, and a
+ * db.properties on the classpath as for the server. It works in its own
+ * database, {@code chess_benchmark} unless {@code -Ddb.name} says otherwise,
+ * which it clears first.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataAccessBenchmark {
+
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    private MySqlDataAccess dataAccess;
+    private AuthData auth;
+    private GameData game;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DataAccessException, InvalidMoveException {
+        // each parameter value runs in a fresh fork, so this is read before the pool starts
+        System.setProperty("db.pool.statementCacheSize", String.valueOf(statementCacheSize));
+        if (System.getProperty("db.name") == null) {
+            System.setProperty("db.name", "chess_benchmark");
+        }
+        dataAccess = new MySqlDataAccess();
+        dataAccess.clear();
+        dataAccess.createUser(new UserData("benchmark", "password", "benchmark@example.com"));
+        auth = dataAccess.createAuth("benchmark");
+
+        GameData created = dataAccess.createGame("benchmark");
+        ChessGame chess = created.game();
+        chess.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game = new GameData(created.gameID(), "benchmark", null, created.gameName(), chess);
+        dataAccess.updateGame(game);
+    }
+
+    @Benchmark
+    public AuthData getAuth() throws DataAccessException {
+        return dataAccess.getAuth(auth.authToken());
+    }
+
+    @Benchmark
+    public UserData getUser() throws DataAccessException {
+        return dataAccess.getUser("benchmark");
+    }
+
+    @Benchmark
+    public GameData getGame() throws DataAccessException {
+        return dataAccess.getGame(game.gameID());
+    }
+
+    @Benchmark
+    public void updateGame() throws DataAccessException {
+        dataAccess.updateGame(game);
+    }
+
+    /**
+     * The data access calls behind one move: check the token, load the game,
+     * save it back
+     */
+    @Benchmark
+    public GameData makeMoveRequest() throws DataAccessException {
+        dataAccess.getAuth(auth.authToken());
+        GameData loaded = dataAccess.getGame(game.gameID());
+        dataAccess.updateGame(loaded);
+        return loaded;
+    }
+}
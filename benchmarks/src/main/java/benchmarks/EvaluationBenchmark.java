@@ -0,0 +1,54 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.engine.Evaluation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one static evaluation: reading the incrementally maintained score
+ * against recomputing it from the bitboards. Run with {@code -prof gc} to
+ * confirm neither allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ROOK_ENDGAME", "QUEEN_ENDGAME"})
+    public Positions position;
+
+    private ChessGame game;
+    private ChessBoard board;
+
+    @Setup
+    public void setUp() {
+        game = position.load();
+        board = game.getBoard();
+    }
+
+    @Benchmark
+    public int incremental() {
+        return Evaluation.evaluate(game);
+    }
+
+    @Benchmark
+    public int recompute() {
+        return board.recomputeEvaluation();
+    }
+}
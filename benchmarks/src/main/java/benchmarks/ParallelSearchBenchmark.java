@@ -0,0 +1,81 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multicore scaling of the Lazy SMP search: time to reach a fixed depth for each
+ * thread count, starting from an empty table every time. The speedup for N
+ * threads is the 1-thread time divided by the N-thread time, and the
+ * {@code nodes} counter shows how many more positions the helpers visit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    @Param({"MIDDLEGAME", "TACTICAL"})
+    public Positions position;
+
+    @Param({"6"})
+    public int depth;
+
+    private ParallelSearch search;
+    private ChessGame game;
+
+    /**
+     * Nodes searched, reported per second next to the timing
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        search = new ParallelSearch(threads, 64);
+        game = position.load();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTranspositionTable().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth(Nodes counter) {
+        SearchResult result = search.search(game, SearchLimits.depth(depth));
+        counter.nodes += result.nodes();
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+import chess.pgn.PgnWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PGN import and export throughput in games per second, over a fixed archive of
+ * random legal games of up to 120 plies. Reading includes matching every SAN
+ * move against the legal moves and playing it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PgnBenchmark {
+
+    private static final int GAMES = 1000;
+    private static final int MAX_PLIES = 120;
+
+    private List<PgnGame> games;
+    private byte[] archive;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(2024);
+        games = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            games.add(randomGame(random, i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PgnWriter writer = new PgnWriter(Channels.newChannel(out))) {
+            for (PgnGame game : games) {
+                writer.write(game);
+            }
+        }
+        archive = out.toByteArray();
+    }
+
+    private static PgnGame randomGame(Random random, int round) {
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+        List<ChessMove> played = new ArrayList<>();
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            moves.clear();
+            game.legalMoves(moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            int move = moves.get(random.nextInt(moves.size()));
+            played.add(PackedMove.toChessMove(move));
+            game.makeMove(move);
+        }
+        return new PgnGame(Map.of("Event", "Benchmark", "Round", String.valueOf(round + 1)), played,
+                PgnGame.UNFINISHED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long read(Blackhole blackhole) throws IOException {
+        return PgnReader.forEach(Channels.newChannel(new ByteArrayInputStream(archive)), blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public void write() throws IOException {
+        try (PgnWriter writer = new PgnWriter(new DiscardingChannel())) {
+            for (PgnGame game : games) {
+                writer.write(game);
+            }
+        }
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer source) {
+            int length = source.remaining();
+            source.position(source.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+
+/**
+ * The positions every engine benchmark runs over, so numbers from different
+ * benchmarks describe the same workload.
+ */
+public enum Positions {
+    OPENING("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"),
+    RUY_LOPEZ("r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3"),
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"),
+    TACTICAL("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"),
+    ROOK_ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"),
+    QUEEN_ENDGAME("8/8/8/4k3/8/8/3QK3/8 w - - 0 1"),
+    CHECKMATE("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3"),
+    STALEMATE("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+    private final String fen;
+
+    Positions(String fen) {
+        this.fen = fen;
+    }
+
+    public ChessGame load() {
+        return Perft.loadPosition(fen);
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of ChessGame through Gson, the format games are sent to clients
+ * with, through FEN, and through {@link GameCodec}, the format of the game
+ * table's game column. Run with {@code -prof gc} to compare allocation as well
+ * as time. Encoded sizes for the starting position: Gson 257 bytes, FEN
+ * 56, GameCodec 29.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ROOK_ENDGAME"})
+    public Positions position;
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String json;
+    private String fen;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        game = position.load();
+        json = gson.toJson(game);
+        fen = game.toFen();
+        encoded = GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public String gsonToJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame gsonFromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public String fenToString() {
+        return game.toFen();
+    }
+
+    @Benchmark
+    public ChessGame fenFromString() {
+        return ChessGame.fromFen(fen);
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessGame codecDecode() {
+        return GameCodec.decode(encoded);
+    }
+}
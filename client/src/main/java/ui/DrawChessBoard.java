@@ -44,7 +44,7 @@ public class DrawChessBoard {
         boolean whiteSquare = (row + col) % 2 != 0;
         String bg = whiteSquare ? EscapeSequences.SET_BG_COLOR_GREEN
                 : EscapeSequences.SET_BG_COLOR_DARK_GREEN;
-        ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+        ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
         String pieceStr = piece == null ? EscapeSequences.EMPTY : pieceString(piece);
         String pieceColor = piece == null ? ""
                 : piece.getTeamColor() == ChessGame.TeamColor.WHITE
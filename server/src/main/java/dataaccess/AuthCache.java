@@ -0,0 +1,212 @@
+package dataaccess;
+
+import model.AuthData;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers recent auth token lookups so checking a token doesn't query the
+ * database on every request.
+ * <p>
+ * A token that was found is remembered for {@code ttl}; one that wasn't is
+ * remembered as unknown for the shorter {@code unknownTtl}, so a flood of
+ * requests with bad tokens costs one query per token rather than one each.
+ * {@link #invalidate} forgets a token at once, which logout relies on. The TTL
+ * also bounds how long a logout made through another server process goes unseen.
+ * <p>
+ * Known and unknown tokens are kept in separate maps, at most {@code maxTokens}
+ * and {@code maxUnknownTokens}, each dropping its least recently used. A flood
+ * of distinct bad tokens then only pushes out other unknown tokens, never the
+ * valid ones legitimate requests rely on.
+ */
+public final class AuthCache {
+
+    /**
+     * @param hits         lookups answered from the cache, including unknown tokens
+     * @param unknownHits  the hits that found a token remembered as unknown
+     * @param misses       lookups that went to the database
+     * @param size         known tokens currently remembered
+     * @param unknownSize  unknown tokens currently remembered
+     */
+    public record Stats(long hits, long unknownHits, long misses, int size, int unknownSize) {
+    }
+
+    /**
+     * A cached lookup; auth is null for a token the database didn't have
+     */
+    private record Entry(AuthData auth, long expiresAt) {
+    }
+
+    /**
+     * Loads a token on a miss
+     */
+    @FunctionalInterface
+    interface Loader {
+        AuthData load(String authToken) throws DataAccessException;
+    }
+
+    /**
+     * Deletes a token from the database
+     */
+    @FunctionalInterface
+    interface Deleter {
+        void delete(String authToken) throws DataAccessException;
+    }
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_UNKNOWN_TTL = Duration.ofSeconds(5);
+    public static final int DEFAULT_MAX_TOKENS = 10_000;
+    public static final int DEFAULT_MAX_UNKNOWN_TOKENS = 1_000;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final long ttlNanos;
+    private final long unknownTtlNanos;
+    private final LongSupplier clock;
+    // both maps are guarded by tokens' monitor
+    private final Map<String, Entry> tokens;
+    private final Map<String, Entry> unknownTokens;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong unknownHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AuthCache(int maxTokens, int maxUnknownTokens, Duration ttl, Duration unknownTtl) {
+        this(maxTokens, maxUnknownTokens, ttl, unknownTtl, System::nanoTime);
+    }
+
+    /**
+     * @param clock the time in nanoseconds, for tests to move forward
+     */
+    AuthCache(int maxTokens, int maxUnknownTokens, Duration ttl, Duration unknownTtl, LongSupplier clock) {
+        if (maxTokens < 1 || maxUnknownTokens < 1 || ttl.isNegative() || unknownTtl.isNegative()) {
+            throw new IllegalArgumentException("Token limits must be positive and TTLs not negative");
+        }
+        ttlNanos = ttl.toNanos();
+        unknownTtlNanos = unknownTtl.toNanos();
+        this.clock = clock;
+        tokens = leastRecentlyUsed(maxTokens);
+        unknownTokens = leastRecentlyUsed(maxUnknownTokens);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private static Map<String, Entry> leastRecentlyUsed(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Lookups that miss and invalidations of one token are ordered under its
+     * lock, so a lookup that raced a logout can't bring the token back
+     */
+    private Object lockFor(String authToken) {
+        return locks[Math.floorMod(authToken.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * @return the token's auth data, from the cache if it is there and fresh,
+     * otherwise from the loader; null if the token is unknown
+     */
+    AuthData get(String authToken, Loader loader) throws DataAccessException {
+        if (authToken == null) {
+            return loader.load(null);
+        }
+        Entry entry = fresh(authToken);
+        if (entry == null) {
+            synchronized (lockFor(authToken)) {
+                entry = fresh(authToken);
+                if (entry == null) {
+                    misses.incrementAndGet();
+                    AuthData auth = loader.load(authToken);
+                    put(authToken, auth);
+                    return auth;
+                }
+            }
+        }
+        hits.incrementAndGet();
+        if (entry.auth() == null) {
+            unknownHits.incrementAndGet();
+        }
+        return entry.auth();
+    }
+
+    /**
+     * Remembers a token just created, or that it is unknown if auth is null
+     */
+    void put(String authToken, AuthData auth) {
+        long expiresAt = clock.getAsLong() + (auth == null ? unknownTtlNanos : ttlNanos);
+        synchronized (tokens) {
+            if (auth == null) {
+                tokens.remove(authToken);
+                unknownTokens.put(authToken, new Entry(null, expiresAt));
+            } else {
+                unknownTokens.remove(authToken);
+                tokens.put(authToken, new Entry(auth, expiresAt));
+            }
+        }
+    }
+
+    /**
+     * Forgets a token, after it has been deleted
+     *
+     * @param deleter deletes the token from the database, under the token's lock
+     */
+    void invalidate(String authToken, Deleter deleter) throws DataAccessException {
+        if (authToken == null) {
+            deleter.delete(null);
+            return;
+        }
+        synchronized (lockFor(authToken)) {
+            try {
+                deleter.delete(authToken);
+            } finally {
+                synchronized (tokens) {
+                    tokens.remove(authToken);
+                    unknownTokens.remove(authToken);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (tokens) {
+            tokens.clear();
+            unknownTokens.clear();
+        }
+    }
+
+    public Stats stats() {
+        synchronized (tokens) {
+            return new Stats(hits.get(), unknownHits.get(), misses.get(), tokens.size(), unknownTokens.size());
+        }
+    }
+
+    private Entry fresh(String authToken) {
+        synchronized (tokens) {
+            Map<String, Entry> map = tokens;
+            Entry entry = tokens.get(authToken);
+            if (entry == null) {
+                map = unknownTokens;
+                entry = unknownTokens.get(authToken);
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (clock.getAsLong() - entry.expiresAt() >= 0) {
+                map.remove(authToken);
+                return null;
+            }
+            return entry;
+        }
+    }
+}
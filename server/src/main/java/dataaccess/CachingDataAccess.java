@@ -0,0 +1,185 @@
+package dataaccess;
+
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps recently used games in memory in front of another {@link DataAccess},
+ * so the games being played are read from memory instead of the database on
+ * every command.
+ * <p>
+ * {@link #getGame} is served from the cache once a game has been loaded or
+ * written; {@link #updateGame} writes to the database first and only then
+ * replaces the cached copy, so the cache never holds a game the database
+ * doesn't (updating a game the database doesn't have throws). At most
+ * {@code maxGames} games are kept, dropping the least recently used. Games go
+ * in and come out as copies, so a caller changing the {@link chess.ChessGame}
+ * it was given doesn't change the cache.
+ * <p>
+ * Auth tokens, checked at the start of every request, are looked up through an
+ * {@link AuthCache}. Users go straight to the wrapped DataAccess.
+ */
+public class CachingDataAccess implements DataAccess {
+
+    /**
+     * @param hits   getGame calls answered from memory
+     * @param misses getGame calls that went to the database
+     * @param size   games currently cached
+     */
+    public record Stats(long hits, long misses, int size) {
+    }
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final DataAccess delegate;
+    private final Map<Integer, GameData> games;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AuthCache auths;
+
+    public CachingDataAccess(DataAccess delegate, int maxGames) {
+        this(delegate, maxGames, new AuthCache(AuthCache.DEFAULT_MAX_TOKENS,
+                AuthCache.DEFAULT_MAX_UNKNOWN_TOKENS, AuthCache.DEFAULT_TTL, AuthCache.DEFAULT_UNKNOWN_TTL));
+    }
+
+    public CachingDataAccess(DataAccess delegate, int maxGames, AuthCache auths) {
+        if (maxGames < 1) {
+            throw new IllegalArgumentException("maxGames must be positive");
+        }
+        this.delegate = delegate;
+        this.auths = auths;
+        games = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, GameData> eldest) {
+                return size() > maxGames;
+            }
+        };
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Writes and loads of one game are ordered under its lock, so a load that
+     * raced an update can't put the older game back in the cache
+     */
+    private Object lockFor(int gameID) {
+        return locks[Math.floorMod(gameID, LOCK_STRIPES)];
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        delegate.clear();
+        synchronized (games) {
+            games.clear();
+        }
+        auths.clear();
+    }
+
+    @Override
+    public void createUser(UserData user) throws DataAccessException {
+        delegate.createUser(user);
+    }
+
+    @Override
+    public UserData getUser(String username) throws DataAccessException {
+        return delegate.getUser(username);
+    }
+
+    @Override
+    public GameData createGame(String gameName) throws DataAccessException {
+        GameData game = delegate.createGame(gameName);
+        cache(game);
+        return game;
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        GameData cached = cached(gameID);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return copy(cached);
+        }
+        synchronized (lockFor(gameID)) {
+            cached = cached(gameID);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return copy(cached);
+            }
+            misses.incrementAndGet();
+            GameData game = delegate.getGame(gameID);
+            if (game != null) {
+                cache(game);
+            }
+            return game;
+        }
+    }
+
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        return delegate.listGames();
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        synchronized (lockFor(game.gameID())) {
+            delegate.updateGame(game);
+            cache(game);
+        }
+    }
+
+    @Override
+    public AuthData createAuth(String username) throws DataAccessException {
+        AuthData auth = delegate.createAuth(username);
+        auths.put(auth.authToken(), auth);
+        return auth;
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        return auths.get(authToken, delegate::getAuth);
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        auths.invalidate(authToken, delegate::deleteAuth);
+    }
+
+    public AuthCache.Stats authStats() {
+        return auths.stats();
+    }
+
+    public Stats stats() {
+        synchronized (games) {
+            return new Stats(hits.get(), misses.get(), games.size());
+        }
+    }
+
+    private GameData cached(int gameID) {
+        synchronized (games) {
+            return games.get(gameID);
+        }
+    }
+
+    private void cache(GameData game) {
+        GameData copy = copy(game);
+        synchronized (games) {
+            games.put(game.gameID(), copy);
+        }
+    }
+
+    private static GameData copy(GameData game) {
+        if (game.game() == null) {
+            return game;
+        }
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                game.game().copy());
+    }
+}
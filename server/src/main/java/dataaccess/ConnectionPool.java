@@ -0,0 +1,412 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of database connections, so a request borrows an open
+ * connection instead of opening a new one to MySQL each time.
+ * <p>
+ * {@link #getConnection()} hands out a connection whose {@code close()} returns
+ * it to the pool, so callers keep using try-with-resources as before. At most
+ * {@code maxSize} connections are open at once; a caller waits up to the acquire
+ * timeout for one to come back before failing. A connection that has sat idle
+ * for longer than the validation interval is checked with
+ * {@link Connection#isValid(int)} before it is handed out, and a background
+ * thread closes connections idle for longer than the idle timeout, down to
+ * {@code minSize}, and opens new ones when fewer than {@code minSize} are open.
+ * <p>
+ * Each connection keeps up to {@code statementCacheSize} prepared statements
+ * open in a {@link StatementCache}, so {@code prepareStatement} on a borrowed
+ * connection returns the statement prepared for the same SQL last time.
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param minSize              connections kept open even when idle
+     * @param maxSize              most connections open at once
+     * @param acquireTimeoutMillis how long {@link #getConnection()} waits for a free connection
+     * @param idleTimeoutMillis    how long a connection above {@code minSize} may sit idle
+     * @param validationMillis     idle time after which a connection is validated before use
+     * @param statementCacheSize   prepared statements kept open per connection, or 0 for none
+     */
+    public record Settings(int minSize, int maxSize, long acquireTimeoutMillis, long idleTimeoutMillis,
+                           long validationMillis, int statementCacheSize) {
+
+        public static final Settings DEFAULT = new Settings(2, 10, 5_000, 600_000, 30_000, 64);
+
+        public Settings {
+            if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+                throw new IllegalArgumentException("Pool sizes must satisfy 0 <= min <= max and max >= 1");
+            }
+            if (acquireTimeoutMillis < 0 || idleTimeoutMillis <= 0 || validationMillis < 0
+                    || statementCacheSize < 0) {
+                throw new IllegalArgumentException("Pool timeouts must not be negative");
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the pool's state and counters since it was created
+     *
+     * @param active          connections currently borrowed
+     * @param idle            open connections waiting in the pool
+     * @param waiting         callers currently waiting for a connection
+     * @param acquired        connections handed out
+     * @param timeouts        callers that gave up waiting
+     * @param opened          physical connections opened
+     * @param discarded       physical connections closed because they failed validation or sat idle
+     * @param totalWaitNanos  time callers spent waiting for a connection, summed
+     * @param maxWaitNanos    the longest any caller waited
+     * @param statementHits   prepared statements reused from a connection's cache
+     * @param statementMisses prepared statements that had to be prepared
+     */
+    public record Stats(int active, int idle, int waiting, long acquired, long timeouts, long opened,
+                        long discarded, long totalWaitNanos, long maxWaitNanos, long statementHits,
+                        long statementMisses) {
+
+        public double averageWaitMillis() {
+            return acquired == 0 ? 0 : totalWaitNanos / 1e6 / acquired;
+        }
+    }
+
+    /**
+     * A physical connection and its statements, or null statements if caching is off
+     */
+    private record Pooled(Connection connection, StatementCache statements) {
+    }
+
+    private record Idle(Pooled pooled, long returnedAt) {
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final Semaphore permits;
+    private final Deque<Idle> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private int open;
+    private boolean closed;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        permits = new Semaphore(settings.maxSize(), true);
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, settings.idleTimeoutMillis() / 2);
+        evictor.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection. Close it to give it back.
+     *
+     * @throws DataAccessException if no connection frees up within the acquire
+     *                             timeout, or a new one can't be opened
+     */
+    public Connection getConnection() throws DataAccessException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.acquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new DataAccessException("timed out after " + settings.acquireTimeoutMillis()
+                        + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("interrupted waiting for a database connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            Pooled pooled = takeIdle();
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+            acquired.incrementAndGet();
+            return wrap(pooled);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw new DataAccessException("failed to get connection", e);
+        }
+    }
+
+    /**
+     * @return the most recently returned idle connection that is still valid, or
+     * null if there is none
+     */
+    private Pooled takeIdle() {
+        while (true) {
+            Idle entry;
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Connection pool is closed");
+                }
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - entry.returnedAt() < settings.validationMillis()
+                    || isValid(entry.pooled().connection())) {
+                return entry.pooled();
+            }
+            discard(entry.pooled());
+        }
+    }
+
+    private Pooled openConnection() throws SQLException {
+        synchronized (this) {
+            open++;
+        }
+        try {
+            return newPooled();
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                open--;
+            }
+            throw e;
+        }
+    }
+
+    private Pooled newPooled() throws SQLException {
+        Connection connection = factory.open();
+        opened.incrementAndGet();
+        int cacheSize = settings.statementCacheSize();
+        return new Pooled(connection, cacheSize == 0 ? null
+                : new StatementCache(connection, cacheSize, statementHits, statementMisses));
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Pooled pooled) {
+        Connection connection = pooled.connection();
+        try {
+            boolean reusable = !connection.isClosed();
+            if (reusable && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            synchronized (this) {
+                if (reusable && !closed) {
+                    idle.addFirst(new Idle(pooled, System.currentTimeMillis()));
+                    return;
+                }
+            }
+            discard(pooled);
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Pooled pooled) {
+        synchronized (this) {
+            open--;
+        }
+        discarded.incrementAndGet();
+        if (pooled.statements() != null) {
+            pooled.statements().close();
+        }
+        try {
+            pooled.connection().close();
+        } catch (SQLException ignored) {
+            // the connection is being thrown away either way
+        }
+    }
+
+    private void maintain() {
+        evictIdle();
+        fillToMinimum();
+    }
+
+    /**
+     * Opens connections until {@code minSize} are open, so the first requests
+     * after startup or a quiet spell don't pay for connection setup
+     */
+    void fillToMinimum() {
+        while (true) {
+            synchronized (this) {
+                if (closed || open >= settings.minSize()) {
+                    return;
+                }
+                open++;
+            }
+            Pooled pooled;
+            try {
+                pooled = newPooled();
+            } catch (SQLException | RuntimeException e) {
+                // the next request reports the failure; try again next round
+                synchronized (this) {
+                    open--;
+                }
+                return;
+            }
+            synchronized (this) {
+                if (!closed) {
+                    idle.addLast(new Idle(pooled, System.currentTimeMillis()));
+                    continue;
+                }
+            }
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Closes connections that have been idle for longer than the idle timeout,
+     * oldest first, while more than {@code minSize} are open
+     */
+    void evictIdle() {
+        long cutoff = System.currentTimeMillis() - settings.idleTimeoutMillis();
+        while (true) {
+            Idle oldest;
+            synchronized (this) {
+                oldest = idle.peekLast();
+                if (oldest == null || oldest.returnedAt() > cutoff || open <= settings.minSize()) {
+                    return;
+                }
+                idle.pollLast();
+            }
+            discard(oldest.pooled());
+        }
+    }
+
+    public synchronized Stats stats() {
+        int idleCount = idle.size();
+        return new Stats(open - idleCount, idleCount, permits.getQueueLength(), acquired.get(), timeouts.get(),
+                opened.get(), discarded.get(), totalWaitNanos.get(), maxWaitNanos.get(), statementHits.get(),
+                statementMisses.get());
+    }
+
+    /**
+     * Closes every idle connection; borrowed ones are closed when they come back
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        Idle[] remaining;
+        synchronized (this) {
+            closed = true;
+            remaining = idle.toArray(Idle[]::new);
+            idle.clear();
+        }
+        for (Idle entry : remaining) {
+            discard(entry.pooled());
+        }
+    }
+
+    private Connection wrap(Pooled pooled) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Borrowed(pooled));
+    }
+
+    /**
+     * Passes calls through to the pooled connection, except that closing it
+     * returns it to the pool and it can't be used afterwards, and that
+     * statements are prepared through its {@link StatementCache}
+     */
+    private final class Borrowed implements InvocationHandler {
+
+        private final Pooled pooled;
+        private final Connection connection;
+        private boolean returned;
+
+        Borrowed(Pooled pooled) {
+            this.pooled = pooled;
+            connection = pooled.connection();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + connection;
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                    if (isCacheable(method)) {
+                        int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return pooled.statements().prepare((Connection) proxy, (String) args[0], autoGeneratedKeys);
+                    }
+                }
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * @return whether this is {@code prepareStatement(String)} or
+         * {@code prepareStatement(String, int autoGeneratedKeys)} and statements are cached
+         */
+        private boolean isCacheable(Method method) {
+            if (pooled.statements() == null || !method.getName().equals("prepareStatement")) {
+                return false;
+            }
+            Class<?>[] parameters = method.getParameterTypes();
+            return parameters.length == 1 || parameters.length == 2 && parameters[1] == int.class;
+        }
+    }
+}
@@ -8,6 +8,8 @@ public class DatabaseManager {
     private static String dbUsername;
     private static String dbPassword;
     private static String connectionUrl;
+    private static ConnectionPool.Settings poolSettings;
+    private static ConnectionPool pool;
 
     /*
      * Load the database information for the db.properties file.
@@ -30,10 +32,11 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * Borrows a connection from the pool, with the catalog set to the database
+     * specified in db.properties. Connections to the database should be
+     * short-lived, and you must close the connection when you are done with it,
+     * which returns it to the pool. The easiest way to do that is with a
+     * try-with-resource block.
      * <br/>
      * <code>
      * try (var conn = DatabaseManager.getConnection()) {
@@ -42,13 +45,32 @@ public class DatabaseManager {
      * </code>
      */
     static Connection getConnection() throws DataAccessException {
+        return pool().getConnection();
+    }
+
+    /**
+     * @return how many connections are in use and idle, and how long callers
+     * have waited for one
+     */
+    public static ConnectionPool.Stats poolStats() {
+        return pool().stats();
+    }
+
+    private static synchronized ConnectionPool pool() {
+        if (pool == null) {
+            pool = new ConnectionPool(DatabaseManager::openConnection, poolSettings);
+        }
+        return pool;
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
         try {
-            //do not wrap the following line with a try-with-resources
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
             conn.setCatalog(databaseName);
             return conn;
         } catch (SQLException ex) {
-            throw new DataAccessException("failed to get connection", ex);
+            conn.close();
+            throw ex;
         }
     }
 
@@ -65,13 +87,48 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Reads db.properties; any db.* system property overrides the file, so a
+     * benchmark or test can change one setting without its own copy.
+     */
     private static void loadProperties(Properties props) {
+        for (var name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("db.")) {
+                props.setProperty(name, System.getProperty(name));
+            }
+        }
         databaseName = props.getProperty("db.name");
         dbUsername = props.getProperty("db.user");
         dbPassword = props.getProperty("db.password");
 
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
-        connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+
+        var defaults = ConnectionPool.Settings.DEFAULT;
+        poolSettings = new ConnectionPool.Settings(
+                intProperty(props, "db.pool.minSize", defaults.minSize()),
+                intProperty(props, "db.pool.maxSize", defaults.maxSize()),
+                longProperty(props, "db.pool.acquireTimeoutMillis", defaults.acquireTimeoutMillis()),
+                longProperty(props, "db.pool.idleTimeoutMillis", defaults.idleTimeoutMillis()),
+                longProperty(props, "db.pool.validationMillis", defaults.validationMillis()),
+                intProperty(props, "db.pool.statementCacheSize", defaults.statementCacheSize()));
+
+        // with a statement cache, have the driver prepare on the server so the
+        // statements kept open skip parsing; the driver's own cache covers any
+        // statement the pool's cache has evicted
+        var cacheSize = poolSettings.statementCacheSize();
+        connectionUrl = cacheSize == 0 ? String.format("jdbc:mysql://%s:%d", host, port)
+                : String.format("jdbc:mysql://%s:%d?useServerPrepStmts=true&cachePrepStmts=true"
+                + "&prepStmtCacheSize=%d&prepStmtCacheSqlLimit=2048", host, port, cacheSize);
+    }
+
+    private static int intProperty(Properties props, String name, int defaultValue) {
+        var value = props.getProperty(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long longProperty(Properties props, String name, long defaultValue) {
+        var value = props.getProperty(name);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
     }
 }
@@ -0,0 +1,52 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts games to and from the game table's game column. Games are written
+ * with {@link GameCodec}; rows written before that hold Gson JSON, which is
+ * recognised by its leading '{' and still read. Gson also reads the older
+ * board form with a {@code squares} array of pieces, see {@link chess.ChessBoard}.
+ */
+final class GameColumn {
+
+    private static final Gson GSON = new Gson();
+
+    private GameColumn() {
+    }
+
+    static byte[] encode(ChessGame game) {
+        return game == null ? null : GameCodec.encode(game);
+    }
+
+    static ChessGame decode(byte[] bytes) throws DataAccessException {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return isJson(bytes) ? fromJson(new String(bytes, StandardCharsets.UTF_8)) : GameCodec.decode(bytes);
+        } catch (RuntimeException e) {
+            throw new DataAccessException("Stored game is unreadable", e);
+        }
+    }
+
+    static boolean isJson(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == '{';
+    }
+
+    private static ChessGame fromJson(String json) {
+        JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+        ChessGame game = GSON.fromJson(root, ChessGame.class);
+        if (game.getBoard() != null && !root.has("castlingRights")) {
+            // written before castling rights were stored; work them out from the pieces
+            game.setBoard(game.getBoard());
+        }
+        return game;
+    }
+}
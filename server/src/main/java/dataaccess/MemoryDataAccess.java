@@ -56,6 +56,9 @@ public class MemoryDataAccess implements DataAccess {
 
     @Override
     public void updateGame(GameData game) throws DataAccessException {
+        if (!games.containsKey(game.gameID())) {
+            throw new DataAccessException("game " + game.gameID() + " does not exist");
+        }
         games.put(game.gameID(), game);
     }
 
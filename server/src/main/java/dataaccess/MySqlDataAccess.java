@@ -5,19 +5,17 @@ import model.GameData;
 import model.UserData;
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.sql.Connection;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.sql.SQLException;
 
-import com.google.gson.Gson;
 import chess.ChessGame;
 
 public class MySqlDataAccess implements DataAccess {
 
-    private final Gson gson = new Gson();
-
     public MySqlDataAccess() throws DataAccessException {
         configureDatabase();
     }
@@ -47,7 +45,7 @@ public class MySqlDataAccess implements DataAccess {
                 whiteUsername VARCHAR(255),
                 blackUsername VARCHAR(255),
                 gameName VARCHAR(255) NOT NULL,
-                game TEXT,
+                game BLOB,
                 PRIMARY KEY (gameID)
                 )""";
 
@@ -56,11 +54,47 @@ public class MySqlDataAccess implements DataAccess {
             statement.executeUpdate(createUsersTable);
             statement.executeUpdate(createAuthTable);
             statement.executeUpdate(createGameTable);
+            migrateGameColumn(conn);
         } catch (SQLException e) {
             throw new DataAccessException("failt to create tables in db", e);
         }
     }
 
+    /**
+     * Games used to be stored as Gson JSON in a TEXT column. Turns that column
+     * into a BLOB and rewrites every JSON game in the binary form; rows that
+     * were already migrated are left alone, so this is safe to run again.
+     */
+    private void migrateGameColumn(Connection conn) throws SQLException, DataAccessException {
+        String columnType = """
+                SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game' AND COLUMN_NAME = 'game'
+                """;
+        try (var ps = conn.prepareStatement(columnType);
+             var rs = ps.executeQuery()) {
+            if (rs.next() && rs.getString(1).toLowerCase().endsWith("text")) {
+                try (var statement = conn.createStatement()) {
+                    statement.executeUpdate("ALTER TABLE game MODIFY game BLOB");
+                }
+            }
+        }
+
+        try (var select = conn.prepareStatement("SELECT gameID, game FROM game WHERE game LIKE '{%'");
+             var update = conn.prepareStatement("UPDATE game SET game = ? WHERE gameID = ?");
+             var rs = select.executeQuery()) {
+            int pending = 0;
+            while (rs.next()) {
+                update.setBytes(1, GameColumn.encode(GameColumn.decode(rs.getBytes("game"))));
+                update.setInt(2, rs.getInt("gameID"));
+                update.addBatch();
+                pending++;
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+
     @Override
     public void clear() throws DataAccessException {
         try (var conn = DatabaseManager.getConnection();
@@ -133,7 +167,7 @@ public class MySqlDataAccess implements DataAccess {
             ps.setString(1, null);
             ps.setString(2, null);
             ps.setString(3, gameName);
-            ps.setString(4, serializeGame(newGame));
+            ps.setBytes(4, GameColumn.encode(newGame));
 
             ps.executeUpdate();
             try (var keys = ps.getGeneratedKeys()) {
@@ -168,7 +202,7 @@ public class MySqlDataAccess implements DataAccess {
                         rs.getString("whiteUsername"),
                         rs.getString("blackUsername"),
                         rs.getString("gameName"),
-                        deserializeGame(rs.getString("game"))
+                        GameColumn.decode(rs.getBytes("game"))
                 );
             }
         } catch (SQLException e) {
@@ -194,7 +228,7 @@ public class MySqlDataAccess implements DataAccess {
                         rs.getString("whiteUsername"),
                         rs.getString("blackUsername"),
                         rs.getString("gameName"),
-                        deserializeGame(rs.getString("game"))
+                        GameColumn.decode(rs.getBytes("game"))
                 ));
             }
             return games;
@@ -216,9 +250,12 @@ public class MySqlDataAccess implements DataAccess {
             ps.setString(1, game.whiteUsername());
             ps.setString(2, game.blackUsername());
             ps.setString(3, game.gameName());
-            ps.setString(4, serializeGame(game.game()));
+            ps.setBytes(4, GameColumn.encode(game.game()));
             ps.setInt(5, game.gameID());
-            ps.executeUpdate();
+            // the driver counts matched rows, so 0 means the game doesn't exist
+            if (ps.executeUpdate() == 0) {
+                throw new DataAccessException("game " + game.gameID() + " does not exist");
+            }
 
         } catch (SQLException e) {
             throw new DataAccessException("failed to update game", e);
@@ -276,18 +313,4 @@ public class MySqlDataAccess implements DataAccess {
             throw new DataAccessException("deleteAuth failed");
         }
     }
-
-    private String serializeGame(ChessGame game) {
-        if (game == null) {
-            return null;
-        }
-        return gson.toJson(game);
-    }
-
-    private ChessGame deserializeGame(String json) {
-        if (json == null) {
-            return null;
-        }
-        return gson.fromJson(json, ChessGame.class);
-    }
 }
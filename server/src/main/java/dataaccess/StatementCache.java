@@ -0,0 +1,183 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The prepared statements of one pooled connection, kept open across borrows so
+ * each SQL string is prepared once per connection rather than once per call.
+ * <p>
+ * {@link #prepare} hands out a statement whose {@code close()} clears its
+ * parameters and keeps it for the next caller with the same SQL. The least
+ * recently used statement is closed once more than {@code capacity} are held.
+ * A connection is only used by one thread at a time, so neither is this.
+ */
+final class StatementCache {
+
+    private record Key(String sql, int autoGeneratedKeys) {
+    }
+
+    private static final class Entry {
+        final PreparedStatement statement;
+        boolean inUse;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    private final Connection connection;
+    private final int capacity;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final LinkedHashMap<Key, Entry> statements;
+
+    /**
+     * @param hits   counts statements served from the cache
+     * @param misses counts statements that had to be prepared
+     */
+    StatementCache(Connection connection, int capacity, AtomicLong hits, AtomicLong misses) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= StatementCache.this.capacity || eldest.getValue().inUse) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue().statement);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param owner             the borrowed connection, returned by the statement's
+     *                          {@code getConnection()}
+     * @param autoGeneratedKeys as for {@link Connection#prepareStatement(String, int)}
+     */
+    PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        Entry entry = statements.get(key);
+        if (entry != null && entry.inUse) {
+            // the same SQL is already open on this connection; give this caller its own
+            misses.incrementAndGet();
+            return handle(new Entry(connection.prepareStatement(sql, autoGeneratedKeys)), owner, false);
+        }
+        if (entry == null || entry.statement.isClosed()) {
+            misses.incrementAndGet();
+            entry = new Entry(connection.prepareStatement(sql, autoGeneratedKeys));
+            statements.put(key, entry);
+        } else {
+            hits.incrementAndGet();
+        }
+        entry.inUse = true;
+        return handle(entry, owner, true);
+    }
+
+    private static PreparedStatement handle(Entry entry, Connection owner, boolean cached) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new Handle(entry, owner, cached));
+    }
+
+    /**
+     * Closes every cached statement
+     */
+    void close() {
+        for (Entry entry : statements.values()) {
+            closeQuietly(entry.statement);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // the statement is being thrown away either way
+        }
+    }
+
+    /**
+     * Passes calls through to the statement, except that {@code getConnection()}
+     * returns the borrowed connection and the statement can't be used once
+     * closed. Closing a cached statement closes its open result set and puts it
+     * back in the cache; closing an uncached one closes it.
+     */
+    private static final class Handle implements InvocationHandler {
+
+        private final Entry entry;
+        private final Connection owner;
+        private final boolean cached;
+        private boolean closed;
+
+        Handle(Entry entry, Connection owner, boolean cached) {
+            this.entry = entry;
+            this.owner = owner;
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        if (cached) {
+                            release();
+                        } else {
+                            entry.statement.close();
+                        }
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || entry.statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return owner;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return (cached ? "Cached " : "Uncached ") + entry.statement;
+                }
+                default -> {
+                    if (closed) {
+                        throw new SQLException("Statement has been closed");
+                    }
+                }
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void release() throws SQLException {
+            entry.inUse = false;
+            ResultSet results = entry.statement.getResultSet();
+            if (results != null) {
+                results.close();
+            }
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+        }
+    }
+}
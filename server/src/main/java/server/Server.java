@@ -1,5 +1,6 @@
 package server;
 
+import dataaccess.CachingDataAccess;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
 import dataaccess.MemoryDataAccess;
@@ -25,6 +26,11 @@ import java.util.Objects;
 
 public class Server {
 
+    /**
+     * Games kept in memory, enough for every game being played on one server
+     */
+    private static final int CACHED_GAMES = 1024;
+
     private final Javalin javalin;
     private final DataAccess dataAccess;
     private final ClearService clearService;
@@ -34,7 +40,7 @@ public class Server {
 
     public Server() {
         try {
-            dataAccess = new MySqlDataAccess();
+            dataAccess = new CachingDataAccess(new MySqlDataAccess(), CACHED_GAMES);
         } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
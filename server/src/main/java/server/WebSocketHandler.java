@@ -286,39 +286,25 @@ public class WebSocketHandler {
     }
 
     private boolean isGameOver(ChessGame chessGame) {
-        return chessGame.isInCheckmate(ChessGame.TeamColor.WHITE) ||
-                chessGame.isInCheckmate(ChessGame.TeamColor.BLACK) ||
-                chessGame.isInStalemate(ChessGame.TeamColor.WHITE) ||
-                chessGame.isInStalemate(ChessGame.TeamColor.BLACK);
+        return chessGame.getGameStatus().isGameOver();
     }
 
     private boolean isCheckOrGameOver(ChessGame chessGame) {
-        return chessGame.isInCheck(ChessGame.TeamColor.WHITE)
-                || chessGame.isInStalemate(ChessGame.TeamColor.WHITE)
-                || chessGame.isInCheckmate(ChessGame.TeamColor.WHITE)
-                || chessGame.isInCheck(ChessGame.TeamColor.BLACK)
-                || chessGame.isInStalemate(ChessGame.TeamColor.BLACK)
-                || chessGame.isInCheckmate(ChessGame.TeamColor.BLACK);
+        ChessGame.GameStatus status = chessGame.getGameStatus();
+        return status.inCheck() || status.isGameOver();
     }
 
     private String buildGameStatusMessage(ChessGame chessGame) {
-        if (chessGame.isInCheck(ChessGame.TeamColor.WHITE)) {
-            return "WHITE is in check";
+        ChessGame.GameStatus status = chessGame.getGameStatus();
+        String side = status.sideToMove().toString();
+        if (status.checkmate()) {
+            return side + " is in Checkmate";
         }
-        if (chessGame.isInStalemate(ChessGame.TeamColor.WHITE)) {
-            return "WHITE is in Stalemate";
+        if (status.stalemate()) {
+            return side + " is in Stalemate";
         }
-        if (chessGame.isInCheckmate(ChessGame.TeamColor.WHITE)) {
-            return "WHITE is in Checkmate";
-        }
-        if (chessGame.isInCheck(ChessGame.TeamColor.BLACK)) {
-            return "BLACK is in Check";
-        }
-        if (chessGame.isInStalemate(ChessGame.TeamColor.BLACK)) {
-            return "BLACK is in Stalemate";
-        }
-        if (chessGame.isInCheckmate(ChessGame.TeamColor.BLACK)) {
-            return "BLACK is in Checkmate";
+        if (status.inCheck()) {
+            return side + " is in Check";
         }
         return "game status has updated";
     }
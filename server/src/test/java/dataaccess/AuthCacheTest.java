@@ -0,0 +1,122 @@
+package dataaccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public class AuthCacheTest {
+
+    private final Map<String, AuthData> database = new HashMap<>();
+    private int queries;
+    private long now;
+    private AuthCache cache;
+
+    @BeforeEach
+    void setUp() {
+        database.put("good", new AuthData("good", "alice"));
+        cache = new AuthCache(2, 2, Duration.ofSeconds(60), Duration.ofSeconds(1), () -> now);
+    }
+
+    private AuthData query(String authToken) {
+        queries++;
+        return database.get(authToken);
+    }
+
+    private AuthData get(String authToken) throws DataAccessException {
+        return cache.get(authToken, this::query);
+    }
+
+    private void advance(Duration duration) {
+        now += duration.toNanos();
+    }
+
+    @Test
+    void known_token_is_cached_until_ttl() throws DataAccessException {
+        Assertions.assertEquals("alice", get("good").username());
+        Assertions.assertEquals("alice", get("good").username());
+        Assertions.assertEquals(1, queries);
+
+        advance(Duration.ofSeconds(59));
+        get("good");
+        Assertions.assertEquals(1, queries);
+        advance(Duration.ofSeconds(1));
+        get("good");
+        Assertions.assertEquals(2, queries, "expired after the TTL");
+
+        AuthCache.Stats stats = cache.stats();
+        Assertions.assertEquals(2, stats.hits());
+        Assertions.assertEquals(2, stats.misses());
+    }
+
+    @Test
+    void unknown_token_is_cached_briefly() throws DataAccessException {
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNull(get("bad"));
+        }
+        Assertions.assertEquals(1, queries, "a flood of one bad token costs one query");
+        Assertions.assertEquals(99, cache.stats().unknownHits());
+
+        database.put("bad", new AuthData("bad", "bob"));
+        advance(Duration.ofSeconds(1));
+        Assertions.assertEquals("bob", get("bad").username(), "unknown tokens expire sooner");
+    }
+
+    @Test
+    void invalidate_forgets_token_at_once() throws DataAccessException {
+        get("good");
+        cache.invalidate("good", database::remove);
+
+        Assertions.assertNull(get("good"));
+        Assertions.assertEquals(2, queries);
+    }
+
+    @Test
+    void put_skips_the_first_query() throws DataAccessException {
+        AuthData created = new AuthData("new", "carol");
+        database.put("new", created);
+        cache.put("new", created);
+
+        Assertions.assertEquals(created, get("new"));
+        Assertions.assertEquals(0, queries);
+    }
+
+    @Test
+    void least_recently_used_token_is_dropped() throws DataAccessException {
+        database.put("second", new AuthData("second", "bob"));
+        database.put("third", new AuthData("third", "carol"));
+        get("good");
+        get("second");
+        get("good");
+        get("third");
+        Assertions.assertEquals(2, cache.stats().size());
+
+        get("good");
+        Assertions.assertEquals(3, queries);
+        get("second");
+        Assertions.assertEquals(4, queries);
+    }
+
+    @Test
+    void unknown_token_flood_keeps_known_tokens() throws DataAccessException {
+        get("good");
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNull(get("bad-" + i));
+        }
+        Assertions.assertEquals(2, cache.stats().unknownSize(), "unknown tokens have their own bound");
+
+        get("good");
+        Assertions.assertEquals(101, queries, "the known token is still cached");
+        Assertions.assertEquals(1, cache.stats().size());
+    }
+
+    @Test
+    void null_token_is_not_cached() throws DataAccessException {
+        Assertions.assertNull(get(null));
+        Assertions.assertNull(get(null));
+        Assertions.assertEquals(2, queries);
+        Assertions.assertEquals(0, cache.stats().size());
+    }
+}
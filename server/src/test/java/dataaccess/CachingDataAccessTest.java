@@ -0,0 +1,153 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.AuthData;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+public class CachingDataAccessTest {
+
+    private CountingDataAccess database;
+    private CachingDataAccess cache;
+
+    @BeforeEach
+    void setUp() {
+        database = new CountingDataAccess();
+        cache = new CachingDataAccess(database, 2);
+    }
+
+    @Test
+    void created_game_is_read_without_database() throws DataAccessException {
+        GameData created = cache.createGame("cached");
+        cache.updateGame(withGame(created, new ChessGame()));
+
+        Assertions.assertEquals("cached", cache.getGame(created.gameID()).gameName());
+        Assertions.assertEquals(new ChessGame(), cache.getGame(created.gameID()).game());
+        Assertions.assertEquals(0, database.reads);
+        Assertions.assertEquals(2, cache.stats().hits());
+    }
+
+    @Test
+    void update_writes_through() throws DataAccessException, InvalidMoveException {
+        GameData created = cache.createGame("moves");
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        cache.updateGame(withGame(created, game));
+
+        Assertions.assertEquals(1, database.writes);
+        Assertions.assertEquals(game, database.getGame(created.gameID()).game());
+        Assertions.assertEquals(game, cache.getGame(created.gameID()).game());
+    }
+
+    @Test
+    void changing_returned_game_does_not_change_cache() throws DataAccessException, InvalidMoveException {
+        GameData created = cache.createGame("copies");
+        cache.updateGame(withGame(created, new ChessGame()));
+
+        cache.getGame(created.gameID()).game()
+                .makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(new ChessGame(), cache.getGame(created.gameID()).game());
+    }
+
+    @Test
+    void failed_write_leaves_cache_unchanged() throws DataAccessException {
+        GameData created = cache.createGame("failing");
+        cache.updateGame(withGame(created, new ChessGame()));
+        database.failWrites = true;
+
+        Assertions.assertThrows(DataAccessException.class,
+                () -> cache.updateGame(new GameData(created.gameID(), "white", null, "failing", new ChessGame())));
+        Assertions.assertNull(cache.getGame(created.gameID()).whiteUsername());
+    }
+
+    @Test
+    void update_of_unknown_game_is_not_cached() throws DataAccessException {
+        Assertions.assertThrows(DataAccessException.class,
+                () -> cache.updateGame(new GameData(42, null, null, "missing", new ChessGame())));
+        Assertions.assertEquals(0, cache.stats().size());
+        Assertions.assertNull(cache.getGame(42));
+    }
+
+    @Test
+    void least_recently_used_game_is_evicted() throws DataAccessException {
+        GameData first = database.createGame("first");
+        GameData second = database.createGame("second");
+        GameData third = database.createGame("third");
+
+        cache.getGame(first.gameID());
+        cache.getGame(second.gameID());
+        cache.getGame(first.gameID());
+        cache.getGame(third.gameID());
+        Assertions.assertEquals(3, database.reads);
+        Assertions.assertEquals(2, cache.stats().size());
+
+        cache.getGame(first.gameID());
+        Assertions.assertEquals(3, database.reads, "first was used more recently than second");
+        cache.getGame(second.gameID());
+        Assertions.assertEquals(4, database.reads);
+    }
+
+    @Test
+    void missing_game_is_not_cached() throws DataAccessException {
+        Assertions.assertNull(cache.getGame(42));
+        Assertions.assertNull(cache.getGame(42));
+        Assertions.assertEquals(2, database.reads);
+    }
+
+    @Test
+    void clear_empties_cache() throws DataAccessException {
+        GameData created = cache.createGame("cleared");
+        cache.clear();
+
+        Assertions.assertNull(cache.getGame(created.gameID()));
+        Assertions.assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void logout_is_seen_at_once() throws DataAccessException {
+        AuthData auth = cache.createAuth("alice");
+        Assertions.assertEquals(auth, cache.getAuth(auth.authToken()));
+        Assertions.assertEquals(0, database.authReads, "a new token is already cached");
+
+        cache.deleteAuth(auth.authToken());
+        Assertions.assertNull(database.getAuth(auth.authToken()));
+        Assertions.assertNull(cache.getAuth(auth.authToken()));
+        Assertions.assertNull(cache.getAuth(auth.authToken()));
+        Assertions.assertEquals(2, database.authReads, "the unknown token is cached after one query");
+    }
+
+    private static GameData withGame(GameData game, ChessGame chess) {
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), chess);
+    }
+
+    private static class CountingDataAccess extends MemoryDataAccess {
+        int reads;
+        int writes;
+        int authReads;
+        boolean failWrites;
+
+        @Override
+        public AuthData getAuth(String authToken) throws DataAccessException {
+            authReads++;
+            return super.getAuth(authToken);
+        }
+
+        @Override
+        public GameData getGame(int gameID) throws DataAccessException {
+            reads++;
+            return super.getGame(gameID);
+        }
+
+        @Override
+        public void updateGame(GameData game) throws DataAccessException {
+            if (failWrites) {
+                throw new DataAccessException("write failed");
+            }
+            writes++;
+            super.updateGame(game);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ConnectionPoolTest {
+
+    private final List<FakeConnection> physical = new ArrayList<>();
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private ConnectionPool pool(int minSize, int maxSize, long acquireTimeoutMillis, long validationMillis) {
+        pool = new ConnectionPool(this::open,
+                new ConnectionPool.Settings(minSize, maxSize, acquireTimeoutMillis, 600_000, validationMillis, 2));
+        return pool;
+    }
+
+    private synchronized Connection open() {
+        FakeConnection fake = new FakeConnection();
+        physical.add(fake);
+        return fake.connection;
+    }
+
+    @Test
+    void closed_connection_is_reused() throws DataAccessException, SQLException {
+        pool(0, 2, 1000, 60_000);
+        try (var conn = pool.getConnection()) {
+            Assertions.assertFalse(conn.isClosed());
+        }
+        try (var conn = pool.getConnection()) {
+            Assertions.assertNotNull(conn);
+        }
+
+        Assertions.assertEquals(1, physical.size());
+        Assertions.assertFalse(physical.get(0).closed.get(), "returning keeps the physical connection open");
+        ConnectionPool.Stats stats = pool.stats();
+        Assertions.assertEquals(0, stats.active());
+        Assertions.assertEquals(1, stats.idle());
+        Assertions.assertEquals(2, stats.acquired());
+    }
+
+    @Test
+    void returned_connection_cannot_be_used() throws DataAccessException, SQLException {
+        pool(0, 1, 1000, 60_000);
+        var conn = pool.getConnection();
+        conn.close();
+        conn.close();
+
+        Assertions.assertTrue(conn.isClosed());
+        Assertions.assertThrows(SQLException.class, () -> conn.prepareStatement("SELECT 1"));
+        Assertions.assertEquals(1, pool.stats().idle(), "closing twice returns it once");
+    }
+
+    @Test
+    void waits_no_longer_than_acquire_timeout() throws DataAccessException, SQLException {
+        pool(0, 1, 50, 60_000);
+        try (var held = pool.getConnection()) {
+            Assertions.assertEquals(1, pool.stats().active());
+            Assertions.assertThrows(DataAccessException.class, () -> pool.getConnection());
+        }
+
+        Assertions.assertEquals(1, pool.stats().timeouts());
+        Assertions.assertEquals(1, physical.size(), "never opens more than maxSize");
+    }
+
+    @Test
+    void invalid_idle_connection_is_replaced() throws DataAccessException, SQLException {
+        pool(0, 2, 1000, 0);
+        pool.getConnection().close();
+        physical.get(0).valid.set(false);
+
+        try (var conn = pool.getConnection()) {
+            Assertions.assertNotNull(conn);
+        }
+        Assertions.assertEquals(2, physical.size());
+        Assertions.assertTrue(physical.get(0).closed.get());
+        Assertions.assertEquals(1, pool.stats().discarded());
+    }
+
+    @Test
+    void open_transaction_is_rolled_back_on_return() throws DataAccessException, SQLException {
+        pool(0, 1, 1000, 60_000);
+        try (var conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+        }
+        Assertions.assertTrue(physical.get(0).rolledBack.get());
+        try (var conn = pool.getConnection()) {
+            Assertions.assertTrue(conn.getAutoCommit());
+        }
+    }
+
+    @Test
+    void eviction_keeps_min_size() throws DataAccessException, SQLException {
+        pool = new ConnectionPool(this::open, new ConnectionPool.Settings(1, 3, 1000, 1, 60_000, 2));
+        var first = pool.getConnection();
+        var second = pool.getConnection();
+        var third = pool.getConnection();
+        first.close();
+        second.close();
+        third.close();
+        sleep();
+
+        pool.evictIdle();
+        Assertions.assertEquals(1, pool.stats().idle());
+        Assertions.assertEquals(2, pool.stats().discarded());
+    }
+
+    @Test
+    void fill_opens_min_size_connections_ahead_of_use() {
+        pool(2, 4, 1000, 60_000);
+        pool.fillToMinimum();
+
+        Assertions.assertEquals(2, pool.stats().idle());
+        Assertions.assertEquals(2, physical.size());
+    }
+
+    @Test
+    void closing_pool_closes_idle_connections() throws DataAccessException, SQLException {
+        pool(0, 2, 1000, 60_000);
+        pool.getConnection().close();
+        pool.close();
+
+        Assertions.assertTrue(physical.get(0).closed.get());
+        Assertions.assertThrows(DataAccessException.class, () -> pool.getConnection());
+    }
+
+    @Test
+    void prepared_statements_are_reused_per_connection() throws DataAccessException, SQLException {
+        pool(0, 1, 1000, 60_000);
+        PreparedStatement first;
+        try (var conn = pool.getConnection(); var ps = conn.prepareStatement("SELECT 1")) {
+            ps.setString(1, "a");
+            Assertions.assertSame(conn, ps.getConnection());
+            first = ps;
+        }
+        try (var conn = pool.getConnection(); var ps = conn.prepareStatement("SELECT 1")) {
+            Assertions.assertNotNull(ps);
+        }
+
+        FakeConnection fake = physical.get(0);
+        Assertions.assertEquals(1, fake.statements.size(), "prepared once");
+        Assertions.assertFalse(fake.statements.get(0).closed.get());
+        Assertions.assertTrue(fake.statements.get(0).parametersCleared.get());
+        Assertions.assertThrows(SQLException.class, () -> first.setString(1, "b"));
+        Assertions.assertEquals(1, pool.stats().statementHits());
+        Assertions.assertEquals(1, pool.stats().statementMisses());
+    }
+
+    @Test
+    void closing_statement_closes_its_result_set() throws DataAccessException, SQLException {
+        pool(0, 1, 1000, 60_000);
+        try (var conn = pool.getConnection(); var ps = conn.prepareStatement("SELECT 1")) {
+            ps.executeQuery();
+        }
+
+        FakeStatement fake = physical.get(0).statements.get(0);
+        Assertions.assertTrue(fake.resultsClosed.get(), "an unclosed result set is not left on the cached statement");
+        Assertions.assertFalse(fake.closed.get());
+    }
+
+    @Test
+    void statement_cache_is_bounded_and_shares_nothing_in_use() throws DataAccessException, SQLException {
+        pool(0, 1, 1000, 60_000);
+        try (var conn = pool.getConnection()) {
+            try (var outer = conn.prepareStatement("SELECT 1"); var inner = conn.prepareStatement("SELECT 1")) {
+                Assertions.assertNotSame(outer, inner);
+                Assertions.assertSame(conn, inner.getConnection(), "the uncached duplicate is wrapped too");
+            }
+            conn.prepareStatement("SELECT 2").close();
+            conn.prepareStatement("SELECT 3").close();
+        }
+
+        List<FakeStatement> statements = physical.get(0).statements;
+        Assertions.assertEquals(4, statements.size());
+        Assertions.assertTrue(statements.get(0).closed.get(), "least recently used is evicted past capacity");
+        Assertions.assertTrue(statements.get(1).closed.get(), "the uncached duplicate is really closed");
+        Assertions.assertFalse(statements.get(2).closed.get());
+        Assertions.assertFalse(statements.get(3).closed.get());
+
+        pool.close();
+        Assertions.assertTrue(statements.get(3).closed.get(), "discarding a connection closes its statements");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Just enough of a Connection for the pool: open/closed, validity, auto-commit
+     * and preparing statements
+     */
+    private static final class FakeConnection {
+        final List<FakeStatement> statements = new ArrayList<>();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean valid = new AtomicBoolean(true);
+        final AtomicBoolean rolledBack = new AtomicBoolean();
+        final AtomicBoolean autoCommit = new AtomicBoolean(true);
+        final Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed.set(true);
+                        yield null;
+                    }
+                    case "isClosed" -> closed.get();
+                    case "isValid" -> valid.get() && !closed.get();
+                    case "getAutoCommit" -> autoCommit.get();
+                    case "setAutoCommit" -> {
+                        autoCommit.set((Boolean) args[0]);
+                        yield null;
+                    }
+                    case "rollback" -> {
+                        rolledBack.set(true);
+                        yield null;
+                    }
+                    case "prepareStatement" -> {
+                        FakeStatement statement = new FakeStatement();
+                        statements.add(statement);
+                        yield statement.statement;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static final class FakeStatement {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean parametersCleared = new AtomicBoolean();
+        final AtomicBoolean executed = new AtomicBoolean();
+        final AtomicBoolean resultsClosed = new AtomicBoolean();
+        final ResultSet results = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        resultsClosed.set(true);
+                        yield null;
+                    }
+                    case "isClosed" -> resultsClosed.get();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        final PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed.set(true);
+                        yield null;
+                    }
+                    case "isClosed" -> closed.get();
+                    case "clearParameters" -> {
+                        parametersCleared.set(true);
+                        yield null;
+                    }
+                    case "executeQuery" -> {
+                        executed.set(true);
+                        resultsClosed.set(false);
+                        yield results;
+                    }
+                    case "getResultSet" -> executed.get() && !resultsClosed.get() ? results : null;
+                    case "clearBatch", "setString" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
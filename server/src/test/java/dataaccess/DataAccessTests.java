@@ -184,6 +184,12 @@ public class DataAccessTests {
         Assertions.assertNull(fromDB.whiteUsername());
     }
 
+    @Test
+    void updateGameFail_unknownGame() {
+        GameData missing = new GameData(12345, "JD", null, "Missing", new ChessGame());
+        Assertions.assertThrows(DataAccessException.class, () -> dao.updateGame(missing));
+    }
+
     @Test
     void chessGamePersistance() throws DataAccessException {
         GameData freshGame = dao.createGame("test");
@@ -0,0 +1,72 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+
+public class GameColumnTest {
+
+    @Test
+    void encoded_game_decodes_to_same_game() throws DataAccessException, InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        byte[] bytes = GameColumn.encode(game);
+        Assertions.assertFalse(GameColumn.isJson(bytes));
+        Assertions.assertEquals(game, GameColumn.decode(bytes));
+    }
+
+    @Test
+    void null_game_stays_null() throws DataAccessException {
+        Assertions.assertNull(GameColumn.encode(null));
+        Assertions.assertNull(GameColumn.decode(null));
+    }
+
+    @Test
+    void reads_json_rows_from_before_migration() throws DataAccessException, InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        byte[] json = new Gson().toJson(game).getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertTrue(GameColumn.isJson(json));
+        Assertions.assertEquals(game, GameColumn.decode(json));
+    }
+
+    @Test
+    void reads_json_rows_with_squares_array() throws DataAccessException {
+        // the shape rows had when the board was a ChessPiece[8][8]
+        StringBuilder json = new StringBuilder("{\"teamTurn\":\"BLACK\",\"board\":{\"squares\":[");
+        for (int row = 1; row <= 8; row++) {
+            json.append(row > 1 ? "," : "").append('[');
+            for (int column = 1; column <= 8; column++) {
+                json.append(column > 1 ? "," : "");
+                if (row == 1 && column == 5) {
+                    json.append("{\"pieceColor\":\"WHITE\",\"type\":\"KING\"}");
+                } else if (row == 8 && column == 5) {
+                    json.append("{\"pieceColor\":\"BLACK\",\"type\":\"KING\"}");
+                } else if (row == 4 && column == 5) {
+                    json.append("{\"pieceColor\":\"WHITE\",\"type\":\"PAWN\"}");
+                } else {
+                    json.append("null");
+                }
+            }
+            json.append(']');
+        }
+        json.append("]}}");
+
+        ChessGame game = GameColumn.decode(json.toString().getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1", game.toFen());
+    }
+
+    @Test
+    void damaged_row_throws_data_access_exception() {
+        Assertions.assertThrows(DataAccessException.class, () -> GameColumn.decode(new byte[]{7, 0, 0}));
+        Assertions.assertThrows(DataAccessException.class,
+                () -> GameColumn.decode("{not json".getBytes(StandardCharsets.UTF_8)));
+    }
+}
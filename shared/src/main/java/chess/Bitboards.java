@@ -0,0 +1,177 @@
+package chess;
+
+/**
+ * Precomputed attack tables and helpers for the 64-bit board representation.
+ * <p>
+ * Squares are numbered 0-63 with bit 0 being row 1, column 1 and bit 63 being
+ * row 8, column 8, so a square's index is {@code (row - 1) * 8 + (column - 1)}.
+ */
+final class Bitboards {
+
+    static final int NORTH = 0;
+    static final int NORTH_EAST = 1;
+    static final int EAST = 2;
+    static final int NORTH_WEST = 3;
+    static final int SOUTH = 4;
+    static final int SOUTH_WEST = 5;
+    static final int WEST = 6;
+    static final int SOUTH_EAST = 7;
+
+    private static final int[] RAY_ROW_STEP = {1, 1, 0, 1, -1, -1, 0, -1};
+    private static final int[] RAY_COL_STEP = {0, 1, 1, -1, 0, -1, -1, 1};
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = offsets(square, new int[][]{
+                    {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}});
+            KING_ATTACKS[square] = offsets(square, new int[][]{
+                    {1, 0}, {0, 1}, {-1, 0}, {0, -1}, {1, 1}, {-1, 1}, {-1, -1}, {1, -1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = offsets(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = offsets(square, new int[][]{{-1, -1}, {-1, 1}});
+
+            for (int direction = 0; direction < 8; direction++) {
+                int row = rowOf(square) + RAY_ROW_STEP[direction];
+                int col = columnOf(square) + RAY_COL_STEP[direction];
+                long ray = 0L;
+                while (onBoard(row, col)) {
+                    ray |= bit(square(row, col));
+                    row += RAY_ROW_STEP[direction];
+                    col += RAY_COL_STEP[direction];
+                }
+                RAYS[direction][square] = ray;
+            }
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int direction = 0; direction < 8; direction++) {
+                long ray = RAYS[direction][from];
+                long opposite = RAYS[(direction + 4) % 8][from];
+                long walked = 0L;
+                while (ray != 0) {
+                    int to = direction < SOUTH
+                            ? Long.numberOfTrailingZeros(ray)
+                            : 63 - Long.numberOfLeadingZeros(ray);
+                    ray ^= bit(to);
+                    BETWEEN[from][to] = walked;
+                    LINE[from][to] = RAYS[direction][from] | opposite | bit(from);
+                    walked |= bit(to);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    private static long offsets(int square, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int row = rowOf(square) + step[0];
+            int col = columnOf(square) + step[1];
+            if (onBoard(row, col)) {
+                attacks |= bit(square(row, col));
+            }
+        }
+        return attacks;
+    }
+
+    static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    static int square(int row, int col) {
+        return ((row - 1) << 3) | (col - 1);
+    }
+
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    static int rowOf(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    static int columnOf(int square) {
+        return (square & 7) + 1;
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    static ChessPosition position(int square) {
+        return ChessPosition.ofSquare(square);
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared rank, file or
+     * diagonal, or an empty mask if they are not aligned
+     */
+    static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return the whole rank, file or diagonal running through both squares, or an
+     * empty mask if they are not aligned
+     */
+    static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on {@code square} attacks
+     */
+    static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Walks a ray from {@code square} until it leaves the board or hits an occupied
+     * square. The blocking square is included so captures fall out of the mask.
+     */
+    static long rayAttacks(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            int blocker = direction < SOUTH
+                    ? Long.numberOfTrailingZeros(blockers)
+                    : 63 - Long.numberOfLeadingZeros(blockers);
+            ray ^= RAYS[direction][blocker];
+        }
+        return ray;
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return rayAttacks(NORTH, square, occupied)
+                | rayAttacks(EAST, square, occupied)
+                | rayAttacks(SOUTH, square, occupied)
+                | rayAttacks(WEST, square, occupied);
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return rayAttacks(NORTH_EAST, square, occupied)
+                | rayAttacks(NORTH_WEST, square, occupied)
+                | rayAttacks(SOUTH_EAST, square, occupied)
+                | rayAttacks(SOUTH_WEST, square, occupied);
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+}
@@ -1,7 +1,15 @@
 package chess;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.lang.reflect.Type;
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -9,13 +17,57 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoard.JsonReader.class)
 public class ChessBoard {
 
-    ChessPiece[][] squares = new ChessPiece[8][8];
+    private static final int PIECE_KINDS = 6;
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    // FEN letters by piece index, white upper case and black lower case
+    private static final String FEN_LETTERS = "KQBNRPkqbnrp";
+
+    // one bitboard per color and piece type, see Bitboards for the square numbering;
+    // the only field written to JSON, everything below is rebuilt from it on reading
+    long[] pieces = new long[2 * PIECE_KINDS];
+    transient long[] colors = new long[2];
+    transient long occupied;
+    // Zobrist key of the pieces on the board, kept current by setSquare/clearSquare
+    transient long zobristKey;
+    // piece-square sums (white minus black) and game phase, also kept current there
+    transient int middlegameScore;
+    transient int endgameScore;
+    transient int phase;
+
+    // undo records for makeMove, packed as from | to << 6 | moved << 12 | (captured + 1) << 16
+    // plus one bit each for en passant and castling
+    private static final int UNDO_EN_PASSANT = 1 << 20;
+    private static final int UNDO_CASTLING = 1 << 21;
+    private transient int[] undoStack = new int[32];
+    private transient int undoCount;
+
     public ChessBoard() {
         
     }
 
+    /**
+     * @return a board with the same pieces and no move history to take back
+     */
+    public ChessBoard copy() {
+        ChessBoard copy = new ChessBoard();
+        copy.pieces = pieces.clone();
+        copy.colors = colors.clone();
+        copy.occupied = occupied;
+        copy.zobristKey = zobristKey;
+        copy.middlegameScore = middlegameScore;
+        copy.endgameScore = endgameScore;
+        copy.phase = phase;
+        return copy;
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * PIECE_KINDS + type.ordinal();
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -23,7 +75,11 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = Bitboards.square(position);
+        clearSquare(square);
+        if (piece != null) {
+            setSquare(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -34,7 +90,268 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow()-1][position.getColumn()-1];
+        return getPiece(Bitboards.square(position));
+    }
+
+    /**
+     * Gets the piece on a square numbered as in {@link PackedMove}
+     *
+     * @param square the square, 0-63
+     * @return Either the piece on the square, or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        int index = pieceIndexAt(square);
+        return index < 0 ? null : ChessPiece.of(COLORS[index / PIECE_KINDS], TYPES[index % PIECE_KINDS]);
+    }
+
+    /**
+     * @return how many pieces are on the board
+     */
+    public int countPieces() {
+        return Long.bitCount(occupied);
+    }
+
+    /**
+     * @return how many pieces of the given team and type are on the board
+     */
+    public int countPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return Long.bitCount(pieces(color, type));
+    }
+
+    /**
+     * @return the piece index on the square, or -1 if the square is empty
+     */
+    int pieceIndexAt(int square) {
+        long bit = Bitboards.bit(square);
+        if ((occupied & bit) == 0) {
+            return -1;
+        }
+        int first = (colors[0] & bit) != 0 ? 0 : PIECE_KINDS;
+        for (int index = first; index < first + PIECE_KINDS; index++) {
+            if ((pieces[index] & bit) != 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    void setSquare(int square, int index) {
+        long bit = Bitboards.bit(square);
+        pieces[index] |= bit;
+        colors[index / PIECE_KINDS] |= bit;
+        occupied |= bit;
+        zobristKey ^= Zobrist.pieceSquare(index, square);
+        middlegameScore += PieceSquareTables.middlegame(index, square);
+        endgameScore += PieceSquareTables.endgame(index, square);
+        phase += PieceSquareTables.phase(index);
+    }
+
+    void clearSquare(int square) {
+        int index = pieceIndexAt(square);
+        if (index < 0) {
+            return;
+        }
+        long mask = ~Bitboards.bit(square);
+        pieces[index] &= mask;
+        colors[index / PIECE_KINDS] &= mask;
+        occupied &= mask;
+        zobristKey ^= Zobrist.pieceSquare(index, square);
+        middlegameScore -= PieceSquareTables.middlegame(index, square);
+        endgameScore -= PieceSquareTables.endgame(index, square);
+        phase -= PieceSquareTables.phase(index);
+    }
+
+    /**
+     * Gets the Zobrist hash of the pieces on the board. It is updated incrementally
+     * as pieces are added, moved and removed, so reading it is O(1).
+     *
+     * @return a 64-bit key that is the same for boards with the same pieces on the
+     * same squares
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Gets the material and piece-square score of the board, blended between the
+     * middlegame and endgame values by how much material is left. Like the Zobrist
+     * key it is updated as pieces move, so reading it is O(1).
+     *
+     * @return the score in centipawns, positive when white is better
+     */
+    public int getEvaluation() {
+        return PieceSquareTables.taper(middlegameScore, endgameScore, phase);
+    }
+
+    /**
+     * Scores the board from scratch, for checking the incremental score
+     *
+     * @return what {@link #getEvaluation()} should return
+     */
+    public int recomputeEvaluation() {
+        return PieceSquareTables.evaluate(this);
+    }
+
+    /**
+     * Moves a piece in place, capturing whatever is on the end square and promoting
+     * if the move asks for it. A king moving two columns also moves its rook, and a
+     * pawn moving diagonally onto an empty square captures en passant. The move is
+     * not checked for legality.
+     *
+     * @param move the move to perform
+     */
+    public void makeMove(ChessMove move) {
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        int moved = pieceIndexAt(from);
+
+        int flags = pieceIndexAt(to) >= 0 ? PackedMove.CAPTURE : 0;
+        if (moved >= 0) {
+            ChessPiece.PieceType type = TYPES[moved % PIECE_KINDS];
+            int columns = Math.abs(Bitboards.columnOf(to) - Bitboards.columnOf(from));
+            if (type == ChessPiece.PieceType.KING && columns == 2) {
+                flags = PackedMove.CASTLING;
+            } else if (type == ChessPiece.PieceType.PAWN && columns == 1 && flags == 0
+                    && pieceIndexAt(enPassantVictim(from, to)) == (moved + PIECE_KINDS) % (2 * PIECE_KINDS)) {
+                flags = PackedMove.EN_PASSANT;
+            }
+        }
+        makeMove(PackedMove.of(from, to, move.getPromotionPiece(), flags));
+    }
+
+    /**
+     * Same as {@link #makeMove(ChessMove)} for a {@link PackedMove}, except that
+     * castling and en passant are read from the move's flags
+     *
+     * @param move the packed move to perform
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moved = pieceIndexAt(from);
+        boolean enPassant = PackedMove.hasFlag(move, PackedMove.EN_PASSANT);
+        boolean castling = PackedMove.hasFlag(move, PackedMove.CASTLING);
+
+        int capturedSquare = enPassant ? enPassantVictim(from, to) : to;
+        int captured = pieceIndexAt(capturedSquare);
+
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+        }
+        undoStack[undoCount++] = from | to << 6 | moved << 12 | (captured + 1) << 16
+                | (enPassant ? UNDO_EN_PASSANT : 0) | (castling ? UNDO_CASTLING : 0);
+
+        int placed = moved;
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            placed = pieceIndex(COLORS[moved / PIECE_KINDS], promotion);
+        }
+        clearSquare(from);
+        clearSquare(capturedSquare);
+        setSquare(to, placed);
+        if (castling) {
+            int rookFrom = castlingRookFrom(to);
+            int rook = pieceIndexAt(rookFrom);
+            clearSquare(rookFrom);
+            setSquare(castlingRookTo(to), rook);
+        }
+    }
+
+    /**
+     * Takes back the most recent {@code makeMove}, restoring any
+     * captured piece and undoing a promotion or castling
+     */
+    public void unmakeMove() {
+        int undo = undoStack[--undoCount];
+        int from = undo & 63;
+        int to = (undo >>> 6) & 63;
+        int moved = (undo >>> 12) & 15;
+        int captured = ((undo >>> 16) & 15) - 1;
+
+        clearSquare(to);
+        setSquare(from, moved);
+        if ((undo & UNDO_CASTLING) != 0) {
+            int rookTo = castlingRookTo(to);
+            int rook = pieceIndexAt(rookTo);
+            clearSquare(rookTo);
+            setSquare(castlingRookFrom(to), rook);
+        }
+        if (captured >= 0) {
+            setSquare((undo & UNDO_EN_PASSANT) != 0 ? enPassantVictim(from, to) : to, captured);
+        }
+    }
+
+    /**
+     * @return the square of the pawn taken by an en passant capture: beside the
+     * capturing pawn's start square, on the end square's column
+     */
+    private static int enPassantVictim(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    /**
+     * @param kingTo where the castling king lands, column 3 or 7
+     */
+    private static int castlingRookFrom(int kingTo) {
+        return Bitboards.columnOf(kingTo) == 7 ? kingTo + 1 : kingTo - 2;
+    }
+
+    private static int castlingRookTo(int kingTo) {
+        return Bitboards.columnOf(kingTo) == 7 ? kingTo - 1 : kingTo + 1;
+    }
+
+    long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+    long occupancy(ChessGame.TeamColor color) {
+        return colors[color.ordinal()];
+    }
+
+    long occupancy() {
+        return occupied;
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a square
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of that team could capture on the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(Bitboards.square(position), byColor);
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        return attackersOf(square, byColor, occupied) != 0;
+    }
+
+    /**
+     * Looks outward from the square along the knight, king and pawn offsets and the
+     * sliding rays, so only the pieces that can actually reach it are considered.
+     *
+     * @return the pieces of {@code byColor} attacking the square given the occupancy
+     */
+    long attackersOf(int square, ChessGame.TeamColor byColor, long occupancy) {
+        ChessGame.TeamColor defender = byColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK
+                : ChessGame.TeamColor.WHITE;
+        long queens = pieces(byColor, ChessPiece.PieceType.QUEEN);
+
+        return (Bitboards.pawnAttacks(defender, square) & pieces(byColor, ChessPiece.PieceType.PAWN))
+                | (Bitboards.knightAttacks(square) & pieces(byColor, ChessPiece.PieceType.KNIGHT))
+                | (Bitboards.kingAttacks(square) & pieces(byColor, ChessPiece.PieceType.KING))
+                | (Bitboards.bishopAttacks(square, occupancy) & (pieces(byColor, ChessPiece.PieceType.BISHOP) | queens))
+                | (Bitboards.rookAttacks(square, occupancy) & (pieces(byColor, ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    /**
+     * @return the square of the given team's king, or -1 if it has none
+     */
+    int kingSquare(ChessGame.TeamColor color) {
+        long king = pieces(color, ChessPiece.PieceType.KING);
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
     }
 
     /**
@@ -42,43 +359,172 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        squares = new ChessPiece[8][8];
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        occupied = 0L;
+        zobristKey = 0L;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
 
         // White side
-        addPiece(new ChessPosition(1,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(2,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(1,1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1,2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1,3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1,4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1,5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1,6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1,7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1,8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(2,1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2,2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2,3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2,4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2,5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2,6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2,7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(2,8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
 
         // Black side
-        addPiece(new ChessPosition(8,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(7,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(8,1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8,2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8,3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8,4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8,5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8,6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8,7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8,8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(7,1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7,2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7,3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7,4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7,5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7,6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7,7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        addPiece(ChessPosition.of(7,8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+    }
+
+    /**
+     * Reads the piece placement field of a FEN string: rows 8 down to 1 separated
+     * by '/', pieces as letters (upper case for white) and runs of empty squares
+     * as digits
+     *
+     * @throws IllegalArgumentException if the placement is not 8 rows of 8 squares
+     */
+    public static ChessBoard fromFen(String placement) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for (int i = 0; i < placement.length(); i++) {
+            char c = placement.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("Row " + row + " of '" + placement + "' is not 8 squares");
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int index = FEN_LETTERS.indexOf(c);
+                if (index < 0) {
+                    throw new IllegalArgumentException("Unknown piece '" + c + "' in '" + placement + "'");
+                }
+                if (col > 8) {
+                    throw new IllegalArgumentException("Row " + row + " of '" + placement + "' is not 8 squares");
+                }
+                board.setSquare(Bitboards.square(row, col), index);
+                col++;
+            }
+            if (col > 9) {
+                throw new IllegalArgumentException("Row " + row + " of '" + placement + "' is not 8 squares");
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("'" + placement + "' is not 8 rows of 8 squares");
+        }
+        return board;
+    }
+
+    /**
+     * @return the piece placement field of a FEN string for this board
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(72);
+        appendFen(fen);
+        return fen.toString();
+    }
+
+    void appendFen(StringBuilder fen) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                int index = pieceIndexAt(Bitboards.square(row, col));
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(FEN_LETTERS.charAt(index));
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+    }
+
+    /**
+     * Reads a board from Gson, either as written since the board moved to
+     * bitboards ({@code pieces}, twelve bitboards) or as written before
+     * ({@code squares}, rows of pieces or nulls). The pieces are placed one by
+     * one, so the occupancy, Zobrist key and score come from the pieces rather
+     * than from the JSON.
+     */
+    static final class JsonReader implements JsonDeserializer<ChessBoard> {
+
+        @Override
+        public ChessBoard deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+            JsonObject object = json.getAsJsonObject();
+            ChessBoard board = new ChessBoard();
+            if (object.has("squares")) {
+                JsonArray rows = object.getAsJsonArray("squares");
+                if (rows.size() != 8) {
+                    throw new JsonParseException("Board has " + rows.size() + " rows, not 8");
+                }
+                for (int row = 1; row <= 8; row++) {
+                    JsonArray columns = rows.get(row - 1).getAsJsonArray();
+                    if (columns.size() != 8) {
+                        throw new JsonParseException("Row " + row + " has " + columns.size() + " squares, not 8");
+                    }
+                    for (int col = 1; col <= 8; col++) {
+                        JsonElement piece = columns.get(col - 1);
+                        if (!piece.isJsonNull()) {
+                            board.addPiece(ChessPosition.of(row, col), context.deserialize(piece, ChessPiece.class));
+                        }
+                    }
+                }
+            } else if (object.has("pieces")) {
+                JsonArray bitboards = object.getAsJsonArray("pieces");
+                if (bitboards.size() != board.pieces.length) {
+                    throw new JsonParseException("Board has " + bitboards.size() + " bitboards, not "
+                            + board.pieces.length);
+                }
+                for (int index = 0; index < board.pieces.length; index++) {
+                    for (long bits = bitboards.get(index).getAsLong(); bits != 0; bits &= bits - 1) {
+                        int square = Long.numberOfTrailingZeros(bits);
+                        board.clearSquare(square);
+                        board.setSquare(square, index);
+                    }
+                }
+            }
+            return board;
+        }
     }
 
     @Override
@@ -87,11 +533,11 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey);
     }
 }
\ No newline at end of file
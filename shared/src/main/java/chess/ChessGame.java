@@ -1,6 +1,7 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -12,13 +13,80 @@ import java.util.Objects;
  */
 public class ChessGame {
 
+    /**
+     * Castling rights, combined as a bitmask in {@link #getCastlingRights()}
+     */
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    // rights that survive a move touching each square; moving a king or rook, or
+    // capturing a rook, from its home square clears the matching rights
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[Bitboards.square(1, 5)] = ALL_CASTLING & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[Bitboards.square(1, 8)] = ALL_CASTLING & ~WHITE_KINGSIDE;
+        CASTLING_MASK[Bitboards.square(1, 1)] = ALL_CASTLING & ~WHITE_QUEENSIDE;
+        CASTLING_MASK[Bitboards.square(8, 5)] = ALL_CASTLING & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[Bitboards.square(8, 8)] = ALL_CASTLING & ~BLACK_KINGSIDE;
+        CASTLING_MASK[Bitboards.square(8, 1)] = ALL_CASTLING & ~BLACK_QUEENSIDE;
+    }
+
     private TeamColor teamTurn;
     private ChessBoard board;
+    private int castlingRights;
+    // column (1-8) of a pawn that just moved two squares, or 0
+    private int enPassantColumn;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+
+    // rule state saved by makeMove(int), packed as castling | enPassantColumn << 4
+    // | halfmoveClock << 8 | fullmoveNumber << 32
+    private transient long[] undoStack = new long[32];
+    private transient int undoCount;
+    private final transient MoveList moveBuffer = new MoveList();
+    private transient GameStatus gameStatus;
+    private transient long gameStatusKey;
 
     public ChessGame() {
         teamTurn = TeamColor.WHITE;
         this.board = new ChessBoard();
         this.board.resetBoard();
+        castlingRights = ALL_CASTLING;
+        fullmoveNumber = 1;
+    }
+
+    /**
+     * A game in the given position and rule state, for readers such as
+     * {@link #fromFen(String)} and {@link GameCodec}
+     */
+    ChessGame(ChessBoard board, TeamColor teamTurn, int castlingRights, int enPassantColumn, int halfmoveClock,
+              int fullmoveNumber) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantColumn = enPassantColumn;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * @return a game in the same position with the same rule state, which can be
+     * changed independently, for example by another search thread
+     */
+    public ChessGame copy() {
+        ChessGame copy = new ChessGame();
+        copy.teamTurn = teamTurn;
+        copy.board = board.copy();
+        copy.castlingRights = castlingRights;
+        copy.enPassantColumn = enPassantColumn;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        return copy;
     }
 
     /**
@@ -45,6 +113,41 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * The state of the game for the team whose turn it is
+     *
+     * @param sideToMove the team whose turn it is
+     * @param inCheck    whether that team's king is attacked
+     * @param checkmate  whether that team is in check with no legal moves
+     * @param stalemate  whether that team is not in check but has no legal moves
+     */
+    public record GameStatus(TeamColor sideToMove, boolean inCheck, boolean checkmate, boolean stalemate) {
+
+        /**
+         * @return True if the game has ended in checkmate or stalemate
+         */
+        public boolean isGameOver() {
+            return checkmate || stalemate;
+        }
+    }
+
+    /**
+     * Gets the check, checkmate and stalemate state of the side to move. It is
+     * worked out once per position and reused until the position changes.
+     *
+     * @return the status of the current position
+     */
+    public GameStatus getGameStatus() {
+        long key = getZobristKey();
+        if (gameStatus == null || gameStatusKey != key) {
+            boolean inCheck = isInCheck(teamTurn);
+            boolean noMoves = noMovesPossible(teamTurn);
+            gameStatus = new GameStatus(teamTurn, inCheck, inCheck && noMoves, !inCheck && noMoves);
+            gameStatusKey = key;
+        }
+        return gameStatus;
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -59,39 +162,56 @@ public class ChessGame {
             return null;
         }
 
-        Collection<ChessMove> validMoves = new ArrayList<>();
-        Collection<ChessMove> pieceAtPosMoves = pieceAtPos.pieceMoves(board, startPosition);
-        TeamColor pieceColor = pieceAtPos.getTeamColor();
+        moveBuffer.clear();
+        generateMoves(pieceAtPos.getTeamColor(), Bitboards.bit(Bitboards.square(startPosition)), moveBuffer);
+        return toChessMoves(moveBuffer);
+    }
 
-        for (ChessMove move : pieceAtPosMoves) {
-            ChessBoard copiedBoard = cloneBoard(this.board);
+    /**
+     * Gets every legal move for the team whose turn it is
+     *
+     * @return all legal moves in the current position
+     */
+    public Collection<ChessMove> legalMoves() {
+        moveBuffer.clear();
+        legalMoves(moveBuffer);
+        return toChessMoves(moveBuffer);
+    }
 
-            ChessPiece playPiece = copiedBoard.getPiece(move.getStartPosition());
-            copiedBoard.addPiece(move.getStartPosition(), null);
-            copiedBoard.addPiece(move.getEndPosition(), playPiece);
+    /**
+     * Adds every legal move for the team whose turn it is to the list as
+     * {@link PackedMove}s, without allocating
+     *
+     * @param moves the list to add to
+     */
+    public void legalMoves(MoveList moves) {
+        generateMoves(teamTurn, -1L, moves);
+    }
 
-            if (!isInCheck(pieceColor, copiedBoard)) {
-                // I need to change the parameters of isInCheck. is that legal with the autograder?
-                validMoves.add(move);
-            }
-        }
-        return validMoves;
+    /**
+     * En passant is only open to the side to move, straight after the double push
+     */
+    private void generateMoves(TeamColor color, long fromMask, MoveList moves) {
+        int enPassantSquare = color == teamTurn ? enPassantSquare() : -1;
+        MoveGenerator.legalMoves(board, color, fromMask, castlingRights, enPassantSquare, moves);
     }
 
-    private ChessBoard cloneBoard(ChessBoard board) {
-        ChessBoard copyBoard = new ChessBoard();
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece pieceAtPos = board.getPiece(pos);
+    /**
+     * @return the square behind the pawn that just moved two squares, or -1
+     */
+    private int enPassantSquare() {
+        if (enPassantColumn == 0) {
+            return -1;
+        }
+        return Bitboards.square(teamTurn == TeamColor.WHITE ? 6 : 3, enPassantColumn);
+    }
 
-                if (pieceAtPos != null) {
-                    ChessPiece copyPiece = new ChessPiece(pieceAtPos.getTeamColor(), pieceAtPos.getPieceType());
-                    copyBoard.addPiece(pos, copyPiece);
-                }
-            }
+    private static Collection<ChessMove> toChessMoves(MoveList moves) {
+        Collection<ChessMove> chessMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            chessMoves.add(PackedMove.toChessMove(moves.get(i)));
         }
-        return copyBoard;
+        return chessMoves;
     }
 
     /**
@@ -101,8 +221,6 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
-
         ChessPiece piece = board.getPiece(move.getStartPosition());
 
         if (piece == null) {
@@ -113,20 +231,69 @@ public class ChessGame {
             throw new InvalidMoveException("Not your turn!!!");
         }
 
-        if (!validMoves.contains(move)) {
+        moveBuffer.clear();
+        generateMoves(teamTurn, Bitboards.bit(Bitboards.square(move.getStartPosition())), moveBuffer);
+        int packedMove = findMove(moveBuffer, move);
+        if (packedMove < 0) {
             throw new InvalidMoveException("That's an invalid move");
         }
 
-        board.addPiece(move.getStartPosition(), null);
+        makeMove(packedMove);
+    }
 
-        if (move.getPromotionPiece() != null) {
-            ChessPiece pawnPromotion = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
-            board.addPiece(move.getEndPosition(), pawnPromotion);
-        } else {
-            board.addPiece(move.getEndPosition(), piece);
+    /**
+     * Makes a move from {@link #legalMoves(MoveList)} without checking it, updating
+     * the castling rights, en passant column and move counters along with the board.
+     * It can be taken back with {@link #unmakeMove()}.
+     *
+     * @param move the packed move to perform
+     */
+    public void makeMove(int move) {
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
         }
+        undoStack[undoCount++] = castlingRights | (long) enPassantColumn << 4 | (long) halfmoveClock << 8
+                | (long) fullmoveNumber << 32;
+
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        boolean resetsClock = PackedMove.isCapture(move)
+                || board.pieceIndexAt(from) == ChessBoard.pieceIndex(teamTurn, ChessPiece.PieceType.PAWN);
 
+        board.makeMove(move);
+
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        enPassantColumn = PackedMove.hasFlag(move, PackedMove.DOUBLE_PUSH) ? Bitboards.columnOf(from) : 0;
+        halfmoveClock = resetsClock ? 0 : halfmoveClock + 1;
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
         teamTurn = (this.teamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        gameStatus = null;
+    }
+
+    /**
+     * Takes back the most recent {@link #makeMove(int)}, including the rule state
+     * it changed
+     */
+    public void unmakeMove() {
+        long undo = undoStack[--undoCount];
+        board.unmakeMove();
+        castlingRights = (int) (undo & 15);
+        enPassantColumn = (int) ((undo >>> 4) & 15);
+        halfmoveClock = (int) ((undo >>> 8) & 0xFFFFFF);
+        fullmoveNumber = (int) (undo >>> 32);
+        teamTurn = (this.teamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        gameStatus = null;
+    }
+
+    private static int findMove(MoveList moves, ChessMove move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.matches(moves.get(i), move)) {
+                return moves.get(i);
+            }
+        }
+        return -1;
     }
 
     /**
@@ -141,54 +308,13 @@ public class ChessGame {
     }
 
     private boolean isInCheck(TeamColor teamColor, ChessBoard checkingBoard) {
-        ChessPosition kingPosition = scanForKing(teamColor, checkingBoard);
-
-        TeamColor opponentsColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition newPos = new ChessPosition(row, col);
-                ChessPiece pieceAtPos = checkingBoard.getPiece(newPos);
-
-                if (placeKingInCheck(checkingBoard, pieceAtPos, opponentsColor, newPos, kingPosition)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private static boolean placeKingInCheck(ChessBoard checkingBoard,
-                                            ChessPiece pieceAtPos,
-                                            TeamColor opponentsColor,
-                                            ChessPosition newPos,
-                                            ChessPosition kingPosition) {
-        if (pieceAtPos != null && pieceAtPos.getTeamColor() == opponentsColor) {
-            Collection<ChessMove> opponentsMoves = pieceAtPos.pieceMoves(checkingBoard, newPos);
-
-            for (ChessMove move : opponentsMoves) {
-                if (move.getEndPosition().equals(kingPosition)) {
-                    return true;
-                }
-            }
+        int kingSquare = checkingBoard.kingSquare(teamColor);
+        if (kingSquare < 0) {
+            return false;
         }
-        return false;
-    }
-
-    private ChessPosition scanForKing(TeamColor teamColor, ChessBoard scanBoard) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition newPos = new ChessPosition(row, col);
-                ChessPiece pieceAtPos = scanBoard.getPiece(newPos);
 
-                if (pieceAtPos != null
-                        && pieceAtPos.getPieceType() == ChessPiece.PieceType.KING
-                        && pieceAtPos.getTeamColor() == teamColor) {
-                    return newPos;
-                }
-            }
-        }
-        return null;
+        TeamColor opponentsColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return checkingBoard.isSquareAttacked(kingSquare, opponentsColor);
     }
 
     /**
@@ -198,6 +324,9 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
+        if (teamColor == teamTurn) {
+            return getGameStatus().checkmate();
+        }
         if (!isInCheck(teamColor)) {
             return false;
         } else {
@@ -213,6 +342,9 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == teamTurn) {
+            return getGameStatus().stalemate();
+        }
         if (isInCheck(teamColor)) {
             return false;
         } else {
@@ -221,30 +353,79 @@ public class ChessGame {
     }
 
     private boolean noMovesPossible(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition newPos = new ChessPosition(row, col);
-                ChessPiece pieceAtPos = this.board.getPiece(newPos);
-
-                if (pieceAtPos != null && pieceAtPos.getTeamColor() == teamColor) {
-                    Collection<ChessMove> validMoves = validMoves(newPos);
-
-                    if (validMoves != null && !validMoves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        moveBuffer.clear();
+        generateMoves(teamColor, -1L, moveBuffer);
+        return moveBuffer.isEmpty();
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board. A board carries no history,
+     * so castling is allowed wherever a king and rook are still on their starting
+     * squares, there is no en passant capture, and the move counters restart.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        castlingRights = inferCastlingRights(board);
+        enPassantColumn = 0;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoCount = 0;
+        gameStatus = null;
+    }
+
+    /**
+     * @return the castling rights the pieces allow: each king and rook still on
+     * its home square, which stored rights are masked with when read back
+     */
+    static int inferCastlingRights(ChessBoard board) {
+        int rights = 0;
+        for (TeamColor color : TeamColor.values()) {
+            int homeRow = color == TeamColor.WHITE ? 1 : 8;
+            long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+            if (board.kingSquare(color) != Bitboards.square(homeRow, 5)) {
+                continue;
+            }
+            if ((rooks & Bitboards.bit(Bitboards.square(homeRow, 8))) != 0) {
+                rights |= color == TeamColor.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+            }
+            if ((rooks & Bitboards.bit(Bitboards.square(homeRow, 1))) != 0) {
+                rights |= color == TeamColor.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * @return the castling rights still held, a combination of
+     * {@link #WHITE_KINGSIDE}, {@link #WHITE_QUEENSIDE}, {@link #BLACK_KINGSIDE}
+     * and {@link #BLACK_QUEENSIDE}
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the column (1-8) of a pawn that just moved two squares and may be
+     * captured en passant, or 0 if the last move was not a double pawn push
+     */
+    public int getEnPassantColumn() {
+        return enPassantColumn;
+    }
+
+    /**
+     * @return the number of moves by either side since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the move number, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
     }
 
     /**
@@ -256,17 +437,163 @@ public class ChessGame {
         return this.board;
     }
 
+    /**
+     * Gets the Zobrist hash of the whole position: the board, the side to move, the
+     * castling rights and any en passant capture the side to move could make
+     *
+     * @return a 64-bit key suitable for position caches and repetition detection
+     */
+    public long getZobristKey() {
+        long key = board.getZobristKey() ^ Zobrist.sideToMove(teamTurn) ^ Zobrist.castling(castlingRights);
+        int column = capturableEnPassantColumn();
+        return column == 0 ? key : key ^ Zobrist.enPassant(column);
+    }
+
+    /**
+     * Reads a position in Forsyth-Edwards Notation: piece placement, side to move,
+     * castling rights, en passant square, halfmove clock and fullmove number. Only
+     * the placement is required; missing fields default to "w - - 0 1". Castling
+     * rights whose king or rook is not on its starting square are dropped.
+     *
+     * @throws IllegalArgumentException if a field can't be read
+     */
+    public static ChessGame fromFen(String fen) {
+        String[] fields = new String[6];
+        int count = 0;
+        int i = 0;
+        while (i < fen.length()) {
+            if (fen.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < fen.length() && fen.charAt(i) != ' ') {
+                i++;
+            }
+            if (count == fields.length) {
+                throw new IllegalArgumentException("Too many fields in FEN '" + fen + "'");
+            }
+            fields[count++] = fen.substring(start, i);
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("Empty FEN");
+        }
+
+        ChessBoard board = ChessBoard.fromFen(fields[0]);
+        TeamColor turn = switch (count > 1 ? fields[1] : "w") {
+            case "w" -> TeamColor.WHITE;
+            case "b" -> TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Side to move must be w or b, not '" + fields[1] + "'");
+        };
+        return new ChessGame(board, turn,
+                parseCastling(count > 2 ? fields[2] : "-") & inferCastlingRights(board),
+                parseEnPassant(count > 3 ? fields[3] : "-", turn),
+                parseCounter(count > 4 ? fields[4] : "0", 0, "Halfmove clock"),
+                parseCounter(count > 5 ? fields[5] : "1", 1, "Fullmove number"));
+    }
+
+    private static int parseCastling(String field) {
+        if (field.equals("-")) {
+            return 0;
+        }
+        int rights = 0;
+        for (int i = 0; i < field.length(); i++) {
+            rights |= switch (field.charAt(i)) {
+                case 'K' -> WHITE_KINGSIDE;
+                case 'Q' -> WHITE_QUEENSIDE;
+                case 'k' -> BLACK_KINGSIDE;
+                case 'q' -> BLACK_QUEENSIDE;
+                default -> throw new IllegalArgumentException("Unknown castling right '" + field.charAt(i) + "'");
+            };
+        }
+        return rights;
+    }
+
+    private static int parseEnPassant(String field, TeamColor turn) {
+        if (field.equals("-")) {
+            return 0;
+        }
+        char row = turn == TeamColor.WHITE ? '6' : '3';
+        if (field.length() != 2 || field.charAt(0) < 'a' || field.charAt(0) > 'h' || field.charAt(1) != row) {
+            throw new IllegalArgumentException("En passant square must be - or on row " + row + ", not '"
+                    + field + "'");
+        }
+        return field.charAt(0) - 'a' + 1;
+    }
+
+    private static int parseCounter(String field, int minimum, String name) {
+        int value;
+        try {
+            value = Integer.parseInt(field);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, not '" + field + "'");
+        }
+        if (value < minimum || value > 0xFFFFFF) {
+            throw new IllegalArgumentException(name + " out of range: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * @return the position in Forsyth-Edwards Notation, which {@link #fromFen(String)}
+     * reads back into an equal game with the same move counters
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        board.appendFen(fen);
+        fen.append(teamTurn == TeamColor.WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            appendIf(fen, castlingRights, WHITE_KINGSIDE, 'K');
+            appendIf(fen, castlingRights, WHITE_QUEENSIDE, 'Q');
+            appendIf(fen, castlingRights, BLACK_KINGSIDE, 'k');
+            appendIf(fen, castlingRights, BLACK_QUEENSIDE, 'q');
+        }
+        if (enPassantColumn == 0) {
+            fen.append(" - ");
+        } else {
+            fen.append(' ').append((char) ('a' + enPassantColumn - 1))
+                    .append(teamTurn == TeamColor.WHITE ? '6' : '3').append(' ');
+        }
+        return fen.append(halfmoveClock).append(' ').append(fullmoveNumber).toString();
+    }
+
+    private static void appendIf(StringBuilder fen, int rights, int right, char letter) {
+        if ((rights & right) != 0) {
+            fen.append(letter);
+        }
+    }
+
+    /**
+     * The en passant column only counts towards position identity when a pawn of
+     * the side to move stands next to the pawn that moved two squares, so positions
+     * reached by different move orders still compare equal.
+     */
+    private int capturableEnPassantColumn() {
+        int target = enPassantSquare();
+        if (target < 0) {
+            return 0;
+        }
+        TeamColor opponentsColor = teamTurn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+        long capturers = Bitboards.pawnAttacks(opponentsColor, target)
+                & board.pieces(teamTurn, ChessPiece.PieceType.PAWN);
+        return capturers == 0 ? 0 : enPassantColumn;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return teamTurn == chessGame.teamTurn && Objects.equals(board, chessGame.board);
+        return teamTurn == chessGame.teamTurn && castlingRights == chessGame.castlingRights
+                && capturableEnPassantColumn() == chessGame.capturableEnPassantColumn()
+                && Objects.equals(board, chessGame.board);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, board);
+        return Long.hashCode(getZobristKey());
     }
 }
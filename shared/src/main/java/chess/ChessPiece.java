@@ -13,6 +13,17 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
+    private static final ChessPiece[][] PIECES =
+            new ChessPiece[ChessGame.TeamColor.values().length][PieceType.values().length];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal()][type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final ChessPiece.PieceType type;
     
@@ -21,6 +32,18 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance for a kind of piece. Pieces are immutable, so the
+     * twelve kinds are created once and reused instead of allocated per call.
+     *
+     * @param pieceColor which team the piece belongs to
+     * @param type       which type of piece it is
+     * @return the shared piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[pieceColor.ordinal()][type.ordinal()];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -56,143 +79,55 @@ public class ChessPiece {
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
         List<ChessMove> moves = new ArrayList<>();
-
-        switch (this.type) {
-            case ROOK -> {
-                slidingRangeMove(board, myPosition, moves, 1, 0);
-                slidingRangeMove(board, myPosition, moves, 0, 1);
-                slidingRangeMove(board, myPosition, moves, -1, 0);
-                slidingRangeMove(board, myPosition, moves, 0, -1);
-            }
-            case BISHOP -> {
-                slidingRangeMove(board, myPosition, moves, 1, 1);
-                slidingRangeMove(board, myPosition, moves, -1, 1);
-                slidingRangeMove(board, myPosition, moves, -1, -1);
-                slidingRangeMove(board, myPosition, moves, 1, -1);
-            }
-            case QUEEN -> {
-                slidingRangeMove(board, myPosition, moves, 1, 0);
-                slidingRangeMove(board, myPosition, moves, 0, 1);
-                slidingRangeMove(board, myPosition, moves, -1, 0);
-                slidingRangeMove(board, myPosition, moves, 0, -1);
-                slidingRangeMove(board, myPosition, moves, 1, 1);
-                slidingRangeMove(board, myPosition, moves, -1, 1);
-                slidingRangeMove(board, myPosition, moves, -1, -1);
-                slidingRangeMove(board, myPosition, moves, 1, -1);
-            }
-            case KING -> {
-                singleRangeMove(board, myPosition, moves, 1, 0);
-                singleRangeMove(board, myPosition, moves, 0, 1);
-                singleRangeMove(board, myPosition, moves, -1, 0);
-                singleRangeMove(board, myPosition, moves, 0, -1);
-                singleRangeMove(board, myPosition, moves, 1, 1);
-                singleRangeMove(board, myPosition, moves, -1, 1);
-                singleRangeMove(board, myPosition, moves, -1, -1);
-                singleRangeMove(board, myPosition, moves, 1, -1);
-            }
-            case KNIGHT -> {
-                singleRangeMove(board, myPosition, moves, 1, 2);
-                singleRangeMove(board, myPosition, moves, 2, 1);
-                singleRangeMove(board, myPosition, moves, 2, -1);
-                singleRangeMove(board, myPosition, moves, 1, -2);
-                singleRangeMove(board, myPosition, moves, -1, -2);
-                singleRangeMove(board, myPosition, moves, -2, -1);
-                singleRangeMove(board, myPosition, moves, -2, 1);
-                singleRangeMove(board, myPosition, moves, -1, 2);
-            }
-            case PAWN -> {
-                pawnMoves(board, myPosition, moves);
-            }
-            case null, default -> {
+        int square = Bitboards.square(myPosition);
+        long occupied = board.occupancy();
+
+        long targets = switch (this.type) {
+            case ROOK -> Bitboards.rookAttacks(square, occupied);
+            case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+            case QUEEN -> Bitboards.queenAttacks(square, occupied);
+            case KING -> Bitboards.kingAttacks(square);
+            case KNIGHT -> Bitboards.knightAttacks(square);
+            case PAWN -> pawnTargets(board, square);
+            case null -> 0L;
+        };
+        targets &= ~board.occupancy(this.pieceColor);
+
+        boolean promotes = this.type == PieceType.PAWN;
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            ChessPosition newPos = Bitboards.position(target);
+            int row = newPos.getRow();
+            if (promotes && (row == 8 || row == 1)) {
+                moves.add(new ChessMove(myPosition, newPos, PieceType.QUEEN));
+                moves.add(new ChessMove(myPosition, newPos, PieceType.KNIGHT));
+                moves.add(new ChessMove(myPosition, newPos, PieceType.BISHOP));
+                moves.add(new ChessMove(myPosition, newPos, PieceType.ROOK));
+            } else {
+                moves.add(new ChessMove(myPosition, newPos, null));
             }
         }
 
         return moves;
     }
 
-    private void pawnMoves(ChessBoard board, ChessPosition myPosition, List<ChessMove> moves) {
-        int teamDirection = (ChessGame.TeamColor.WHITE == this.pieceColor) ? 1 : -1;
-        int pawnFirstMove = (ChessGame.TeamColor.WHITE == this.pieceColor) ? 2 : 7;
-
-        int rowAhead = myPosition.getRow() + teamDirection;
-        int col = myPosition.getColumn();
-
-        if (rowAhead >= 1 && rowAhead <= 8 && col >= 1 && col <= 8) {
-            ChessPosition posAhead = new ChessPosition(rowAhead, col);
-            ChessPiece pieceAtPosAhead = board.getPiece(posAhead);
-
-            if (pieceAtPosAhead == null) {
-                promotePawn(myPosition, moves, rowAhead, posAhead);
-                if (myPosition.getRow() == pawnFirstMove) {
-                    ChessPosition posTwoAhead = new ChessPosition(rowAhead + teamDirection, col);
-                    ChessPiece pieceAtTwoAhead = board.getPiece(posTwoAhead);
+    private long pawnTargets(ChessBoard board, int square) {
+        boolean white = ChessGame.TeamColor.WHITE == this.pieceColor;
+        long empty = ~board.occupancy();
+        long pawn = Bitboards.bit(square);
 
-                    if (pieceAtTwoAhead == null) {
-                        moves.add(new ChessMove(myPosition, posTwoAhead, null));
-                    }
-                }
-            }
-        }
-
-        List<Integer> diagonalCapture = List.of(-1, 1);
-        for (Integer integer : diagonalCapture) {
-            int capCol = col + integer;
-
-            if (rowAhead >= 1 && rowAhead <= 8 && capCol >= 1 && capCol <= 8) {
-                ChessPosition newPos = new ChessPosition(rowAhead, capCol);
-                ChessPiece pieceAtPos = board.getPiece(newPos);
-
-                if (pieceAtPos != null && pieceAtPos.getTeamColor() != this.pieceColor) {
-                    promotePawn(myPosition, moves, rowAhead, newPos);
-                }
-            }
+        long singlePush = (white ? pawn << 8 : pawn >>> 8) & empty;
+        long doublePush = 0L;
+        int pawnFirstMove = white ? 2 : 7;
+        if (Bitboards.rowOf(square) == pawnFirstMove) {
+            doublePush = (white ? singlePush << 8 : singlePush >>> 8) & empty;
         }
-    }
-
-    private void promotePawn(ChessPosition myPosition, List<ChessMove> moves, int rowAhead, ChessPosition newPos) {
-        if (rowAhead == 8 || rowAhead == 1) {
-            moves.add(new ChessMove(myPosition, newPos, PieceType.QUEEN));
-            moves.add(new ChessMove(myPosition, newPos, PieceType.KNIGHT));
-            moves.add(new ChessMove(myPosition, newPos, PieceType.BISHOP));
-            moves.add(new ChessMove(myPosition, newPos, PieceType.ROOK));
-        } else {
-            moves.add(new ChessMove(myPosition, newPos, null));
-        }
-    }
-
-    private void singleRangeMove(ChessBoard board, ChessPosition myPosition, List<ChessMove> moves, int rowChange, int colChange) {
-        int row = myPosition.getRow() + rowChange;
-        int col = myPosition.getColumn() + colChange;
 
-        if (row>=1 && row <=8 && col >=1 && col <=8) {
-            ChessPosition newPos = new ChessPosition(row, col);
-            ChessPiece pieceAtPos = board.getPiece(newPos);
+        ChessGame.TeamColor opponentsColor = white ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long captures = Bitboards.pawnAttacks(this.pieceColor, square) & board.occupancy(opponentsColor);
 
-            if (pieceAtPos == null || pieceAtPos.getTeamColor() != this.pieceColor) {
-                moves.add(new ChessMove(myPosition, newPos, null));
-            }
-        }
-    }
-
-    private void slidingRangeMove(ChessBoard board, ChessPosition myPosition, List<ChessMove> moves, int rowChange, int colChange) {
-        int row = myPosition.getRow() + rowChange;
-        int col = myPosition.getColumn() + colChange;
-
-        while (row >=1 && row <=8 && col >=1 && col <=8) {
-            ChessPosition newPos = new ChessPosition(row,col);
-            ChessPiece pieceAtPos = board.getPiece(newPos);
-
-            if (pieceAtPos == null) {
-                moves.add(new ChessMove(myPosition, newPos, null)); // empty spot
-            } else if(pieceAtPos.getTeamColor() != this.pieceColor) {
-                moves.add(new ChessMove(myPosition, newPos, null)); // enemy piece
-                break;
-            } else {
-                break; // Same team piece
-            }
-            row += rowChange;
-            col += colChange;
-        }
+        return singlePush | doublePush | captures;
     }
 
     @Override
@@ -0,0 +1,129 @@
+package chess;
+
+/**
+ * Packs a game into a few dozen bytes for storage, in place of its Gson form.
+ * <p>
+ * Layout, version 1:
+ * <ul>
+ *     <li>byte 0: format version</li>
+ *     <li>byte 1: side to move in bit 0 (set for black), castling rights in bits 1-4</li>
+ *     <li>byte 2: en passant column, 0 for none</li>
+ *     <li>bytes 3-10: occupied squares as a big-endian bitboard</li>
+ *     <li>one 4-bit piece index per occupied square in square order, two to a
+ *     byte with the first in the high half</li>
+ *     <li>the halfmove clock and fullmove number as unsigned varints</li>
+ * </ul>
+ * The starting position takes 29 bytes. The first byte is never '{', so stored
+ * games can be told apart from JSON.
+ */
+public final class GameCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 11;
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        long occupied = board.occupied;
+        int pieceBytes = (Long.bitCount(occupied) + 1) / 2;
+        int halfmove = game.getHalfmoveClock();
+        int fullmove = game.getFullmoveNumber();
+        byte[] bytes = new byte[HEADER_SIZE + pieceBytes + varintSize(halfmove) + varintSize(fullmove)];
+
+        bytes[0] = VERSION;
+        bytes[1] = (byte) (game.getTeamTurn().ordinal() | game.getCastlingRights() << 1);
+        bytes[2] = (byte) game.getEnPassantColumn();
+        for (int i = 0; i < 8; i++) {
+            bytes[3 + i] = (byte) (occupied >>> (56 - 8 * i));
+        }
+        int nibble = 0;
+        for (long squares = occupied; squares != 0; squares &= squares - 1) {
+            int index = board.pieceIndexAt(Long.numberOfTrailingZeros(squares));
+            bytes[HEADER_SIZE + nibble / 2] |= (byte) ((nibble & 1) == 0 ? index << 4 : index);
+            nibble++;
+        }
+        int offset = writeVarint(bytes, HEADER_SIZE + pieceBytes, halfmove);
+        writeVarint(bytes, offset, fullmove);
+        return bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a game in a known version
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not an encoded game, or an unknown version");
+        }
+        int flags = bytes[1] & 0xFF;
+        int enPassantColumn = bytes[2];
+        if (flags > 0x1F || enPassantColumn < 0 || enPassantColumn > 8) {
+            throw new IllegalArgumentException("Encoded game has an invalid rule state");
+        }
+        long occupied = 0L;
+        for (int i = 0; i < 8; i++) {
+            occupied = occupied << 8 | (bytes[3 + i] & 0xFF);
+        }
+        int pieceBytes = (Long.bitCount(occupied) + 1) / 2;
+        if (bytes.length < HEADER_SIZE + pieceBytes + 2) {
+            throw new IllegalArgumentException("Encoded game is truncated");
+        }
+
+        ChessBoard board = new ChessBoard();
+        int nibble = 0;
+        for (long squares = occupied; squares != 0; squares &= squares - 1) {
+            int packed = bytes[HEADER_SIZE + nibble / 2];
+            int index = ((nibble & 1) == 0 ? packed >>> 4 : packed) & 0xF;
+            if (index >= 12) {
+                throw new IllegalArgumentException("Encoded game has an unknown piece " + index);
+            }
+            board.setSquare(Long.numberOfTrailingZeros(squares), index);
+            nibble++;
+        }
+
+        int[] position = {HEADER_SIZE + pieceBytes};
+        int halfmove = readVarint(bytes, position);
+        int fullmove = readVarint(bytes, position);
+        if (position[0] != bytes.length) {
+            throw new IllegalArgumentException("Encoded game has " + (bytes.length - position[0]) + " extra bytes");
+        }
+        // as with FEN, rights for a king or rook that has left home are dropped
+        int castlingRights = (flags >>> 1) & ChessGame.inferCastlingRights(board);
+        return new ChessGame(board, COLORS[flags & 1], castlingRights, enPassantColumn, halfmove, fullmove);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] bytes, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[offset++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static int readVarint(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= bytes.length) {
+                throw new IllegalArgumentException("Encoded game is truncated");
+            }
+            int b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Encoded game has a malformed number");
+    }
+}
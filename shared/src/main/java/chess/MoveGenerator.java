@@ -0,0 +1,220 @@
+package chess;
+
+/**
+ * Generates strictly legal moves for one team.
+ * <p>
+ * Checking pieces and pinned pieces are worked out once per position, so every
+ * move that comes out is legal without trying it on the board: in double check
+ * only the king moves, in single check the other pieces must capture the checker
+ * or block, and a pinned piece may only slide along the line to its king.
+ * En passant is the exception: it empties two squares on one row, so it is
+ * checked by looking at the king's attackers with both pawns gone.
+ */
+final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds the legal moves of the given team's pieces standing on {@code fromMask}
+     * to the list as {@link PackedMove}s
+     *
+     * @param castlingRights   the {@link ChessGame} castling rights still held
+     * @param enPassantSquare  the square a pawn may capture onto en passant, or -1
+     */
+    static void legalMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask, int castlingRights,
+                           int enPassantSquare, MoveList moves) {
+        ChessGame.TeamColor opponentsColor = color == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK
+                : ChessGame.TeamColor.WHITE;
+        long occupied = board.occupancy();
+        long own = board.occupancy(color);
+        long enemy = board.occupancy(opponentsColor);
+        int king = board.kingSquare(color);
+
+        long checkers = 0L;
+        long pinned = 0L;
+        if (king >= 0) {
+            checkers = board.attackersOf(king, opponentsColor, occupied);
+            pinned = pinnedPieces(board, king, color, opponentsColor);
+
+            if ((fromMask & Bitboards.bit(king)) != 0) {
+                // the king is lifted off the board so it can't hide behind itself on a checking ray
+                long kingless = occupied ^ Bitboards.bit(king);
+                long targets = Bitboards.kingAttacks(king) & ~own;
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    if (board.attackersOf(to, opponentsColor, kingless) == 0) {
+                        add(moves, king, to, false, enemy);
+                    }
+                }
+                if (checkers == 0) {
+                    addCastling(board, color, opponentsColor, king, castlingRights, moves);
+                }
+            }
+            if (Long.bitCount(checkers) > 1) {
+                return;
+            }
+        }
+
+        long allowed = ~own;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            allowed &= checkers | Bitboards.between(king, checker);
+        }
+
+        long movers = own & fromMask & ~board.pieces(color, ChessPiece.PieceType.KING);
+        while (movers != 0) {
+            int from = Long.numberOfTrailingZeros(movers);
+            movers &= movers - 1;
+            int index = board.pieceIndexAt(from);
+            ChessPiece.PieceType type = TYPES[index % TYPES.length];
+
+            long targets = switch (type) {
+                case PAWN -> pawnTargets(color, from, occupied, enemy);
+                case KNIGHT -> Bitboards.knightAttacks(from);
+                case BISHOP -> Bitboards.bishopAttacks(from, occupied);
+                case ROOK -> Bitboards.rookAttacks(from, occupied);
+                case QUEEN -> Bitboards.queenAttacks(from, occupied);
+                case KING -> 0L;
+            };
+            targets &= allowed;
+            if ((pinned & Bitboards.bit(from)) != 0) {
+                targets &= Bitboards.line(king, from);
+            }
+
+            boolean pawn = type == ChessPiece.PieceType.PAWN;
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (pawn && Math.abs(to - from) == 16) {
+                    moves.add(PackedMove.of(from, to, null, PackedMove.DOUBLE_PUSH));
+                } else {
+                    int row = Bitboards.rowOf(to);
+                    add(moves, from, to, pawn && (row == 8 || row == 1), enemy);
+                }
+            }
+        }
+
+        if (enPassantSquare >= 0) {
+            addEnPassant(board, color, opponentsColor, king, fromMask, enPassantSquare, moves);
+        }
+    }
+
+    private static void addCastling(ChessBoard board, ChessGame.TeamColor color, ChessGame.TeamColor opponentsColor,
+                                    int king, int castlingRights, MoveList moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int homeRow = white ? 1 : 8;
+        if (king != Bitboards.square(homeRow, 5)) {
+            return;
+        }
+        long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+        int kingside = white ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE;
+        int queenside = white ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE;
+
+        if ((castlingRights & kingside) != 0) {
+            addCastle(board, opponentsColor, king, Bitboards.square(homeRow, 8), Bitboards.square(homeRow, 7),
+                    rooks, moves);
+        }
+        if ((castlingRights & queenside) != 0) {
+            addCastle(board, opponentsColor, king, Bitboards.square(homeRow, 1), Bitboards.square(homeRow, 3),
+                    rooks, moves);
+        }
+    }
+
+    /**
+     * Castles if the rook is home, nothing stands between it and the king, and the
+     * king does not pass through or land on an attacked square
+     */
+    private static void addCastle(ChessBoard board, ChessGame.TeamColor opponentsColor, int king, int rook,
+                                  int kingTo, long rooks, MoveList moves) {
+        long occupied = board.occupancy();
+        if ((rooks & Bitboards.bit(rook)) == 0 || (Bitboards.between(king, rook) & occupied) != 0) {
+            return;
+        }
+        long path = Bitboards.between(king, kingTo) | Bitboards.bit(kingTo);
+        while (path != 0) {
+            int square = Long.numberOfTrailingZeros(path);
+            path &= path - 1;
+            if (board.attackersOf(square, opponentsColor, occupied) != 0) {
+                return;
+            }
+        }
+        moves.add(PackedMove.of(king, kingTo, null, PackedMove.CASTLING));
+    }
+
+    private static void addEnPassant(ChessBoard board, ChessGame.TeamColor color, ChessGame.TeamColor opponentsColor,
+                                     int king, long fromMask, int target, MoveList moves) {
+        int victim = color == ChessGame.TeamColor.WHITE ? target - 8 : target + 8;
+        long capturers = Bitboards.pawnAttacks(opponentsColor, target)
+                & board.pieces(color, ChessPiece.PieceType.PAWN) & fromMask;
+        if ((board.pieces(opponentsColor, ChessPiece.PieceType.PAWN) & Bitboards.bit(victim)) == 0) {
+            return;
+        }
+
+        while (capturers != 0) {
+            int from = Long.numberOfTrailingZeros(capturers);
+            capturers &= capturers - 1;
+            if (king >= 0) {
+                long after = (board.occupancy() ^ Bitboards.bit(from) ^ Bitboards.bit(victim)) | Bitboards.bit(target);
+                if ((board.attackersOf(king, opponentsColor, after) & ~Bitboards.bit(victim)) != 0) {
+                    continue;
+                }
+            }
+            moves.add(PackedMove.of(from, target, null, PackedMove.EN_PASSANT));
+        }
+    }
+
+    /**
+     * @return the given team's pieces that are the only thing standing between
+     * their king and an enemy slider
+     */
+    private static long pinnedPieces(ChessBoard board, int king, ChessGame.TeamColor color,
+                                     ChessGame.TeamColor opponentsColor) {
+        long queens = board.pieces(opponentsColor, ChessPiece.PieceType.QUEEN);
+        long snipers = (Bitboards.rookAttacks(king, 0L)
+                & (board.pieces(opponentsColor, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(king, 0L)
+                & (board.pieces(opponentsColor, ChessPiece.PieceType.BISHOP) | queens));
+
+        long occupied = board.occupancy();
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Bitboards.between(king, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & board.occupancy(color);
+            }
+        }
+        return pinned;
+    }
+
+    private static long pawnTargets(ChessGame.TeamColor color, int from, long occupied, long enemy) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        long empty = ~occupied;
+        long pawn = Bitboards.bit(from);
+
+        long singlePush = (white ? pawn << 8 : pawn >>> 8) & empty;
+        long doublePush = 0L;
+        if (Bitboards.rowOf(from) == (white ? 2 : 7)) {
+            doublePush = (white ? singlePush << 8 : singlePush >>> 8) & empty;
+        }
+        return singlePush | doublePush | (Bitboards.pawnAttacks(color, from) & enemy);
+    }
+
+    private static void add(MoveList moves, int from, int to, boolean promotes, long enemy) {
+        int flags = (enemy & Bitboards.bit(to)) != 0 ? PackedMove.CAPTURE : 0;
+        if (promotes) {
+            moves.add(PackedMove.of(from, to, ChessPiece.PieceType.QUEEN, flags));
+            moves.add(PackedMove.of(from, to, ChessPiece.PieceType.KNIGHT, flags));
+            moves.add(PackedMove.of(from, to, ChessPiece.PieceType.BISHOP, flags));
+            moves.add(PackedMove.of(from, to, ChessPiece.PieceType.ROOK, flags));
+        } else {
+            moves.add(PackedMove.of(from, to, null, flags));
+        }
+    }
+}
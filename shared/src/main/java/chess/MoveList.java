@@ -0,0 +1,63 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, growable buffer of {@link PackedMove} ints. Clearing it keeps the
+ * backing array, so one list per search ply is enough for move generation to
+ * run without allocating.
+ */
+public final class MoveList {
+
+    // more than the most legal moves any chess position has (218)
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return moves[index];
+    }
+
+    /**
+     * Swaps two entries, which is all a search needs to put its best guesses first
+     */
+    public void swap(int first, int second) {
+        if (first >= size || second >= size) {
+            throw new IndexOutOfBoundsException(Math.max(first, second));
+        }
+        int move = moves[first];
+        moves[first] = moves[second];
+        moves[second] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
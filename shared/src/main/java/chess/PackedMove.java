@@ -0,0 +1,89 @@
+package chess;
+
+/**
+ * Encodes a move in a single {@code int} so move generation can fill a
+ * {@link MoveList} without allocating a {@link ChessMove} per move.
+ * <p>
+ * Layout, low bits first: start square (6 bits), end square (6 bits), promotion
+ * piece (3 bits, 0 for none, otherwise {@code PieceType.ordinal() + 1}) and flags.
+ * Squares are numbered 0-63 from row 1, column 1 to row 8, column 8.
+ */
+public final class PackedMove {
+
+    /**
+     * Set on moves that take an enemy piece
+     */
+    public static final int CAPTURE = 1;
+    /**
+     * Set on a pawn's two-square first move, which opens an en passant capture
+     */
+    public static final int DOUBLE_PUSH = 2;
+    /**
+     * Set on en passant captures; the captured pawn is not on the end square
+     */
+    public static final int EN_PASSANT = 4;
+    /**
+     * Set on castling, encoded as the king's two-square move
+     */
+    public static final int CASTLING = 8;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int FLAGS_SHIFT = 15;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | to << TO_SHIFT | promotionBits << PROMOTION_SHIFT | flags << FLAGS_SHIFT;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & 63;
+    }
+
+    /**
+     * @return the piece a pawn promotes to, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> PROMOTION_SHIFT) & 7;
+        return promotionBits == 0 ? null : TYPES[promotionBits - 1];
+    }
+
+    public static int flags(int move) {
+        return move >>> FLAGS_SHIFT;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & (CAPTURE | EN_PASSANT)) != 0;
+    }
+
+    /**
+     * @return true if the packed move and the ChessMove go between the same squares
+     * with the same promotion; flags are not compared
+     */
+    public static boolean matches(int move, ChessMove chessMove) {
+        return from(move) == Bitboards.square(chessMove.getStartPosition())
+                && to(move) == Bitboards.square(chessMove.getEndPosition())
+                && promotion(move) == chessMove.getPromotionPiece();
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+        return (flags(move) & flag) != 0;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.ofSquare(from(move)), ChessPosition.ofSquare(to(move)), promotion(move));
+    }
+
+    public static int fromChessMove(ChessMove move) {
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+}
@@ -0,0 +1,132 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft spread over several cores with fork/join.
+ * <p>
+ * The root moves, and optionally the replies to each of them, become separate
+ * tasks. Each task copies the game, plays its moves and counts the rest of its
+ * subtree with a {@link Perft} of its own, so workers share nothing but an
+ * optional {@link PerftTable}.
+ * <p>
+ * Usage: {@code ParallelPerft <depth> [threads] [hashMB] [fen]}. Counts with 1
+ * thread and then with doubling thread counts up to {@code threads}, printing
+ * nodes per second, the speedup over one thread, and that speedup per thread.
+ */
+public final class ParallelPerft implements AutoCloseable {
+
+    /**
+     * @param nodes        the leaf count
+     * @param elapsedNanos wall-clock time for the count
+     * @param threads      the number of worker threads used
+     */
+    public record Result(long nodes, long elapsedNanos, int threads) {
+
+        public long nodesPerSecond() {
+            return elapsedNanos == 0 ? 0L : nodes * 1_000_000_000L / elapsedNanos;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final PerftTable table;
+
+    /**
+     * @param threads    the number of worker threads
+     * @param splitDepth 1 to make a task per root move, 2 to also split the
+     *                   replies to each root move
+     * @param table      a subtree count cache shared by the workers, or null
+     */
+    public ParallelPerft(int threads, int splitDepth, PerftTable table) {
+        if (splitDepth < 1 || splitDepth > 2) {
+            throw new IllegalArgumentException("Split depth must be 1 or 2");
+        }
+        this.pool = new ForkJoinPool(threads);
+        this.splitDepth = splitDepth;
+        this.table = table;
+    }
+
+    /**
+     * Counts the leaf nodes below the position. The game itself is not changed.
+     */
+    public Result count(ChessGame game, int depth) {
+        long start = System.nanoTime();
+        long nodes = pool.invoke(new Subtree(game.copy(), depth, splitDepth));
+        return new Result(nodes, System.nanoTime() - start, pool.getParallelism());
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private final class Subtree extends RecursiveTask<Long> {
+
+        private final ChessGame game;
+        private final int depth;
+        private final int splitsLeft;
+
+        private Subtree(ChessGame game, int depth, int splitsLeft) {
+            this.game = game;
+            this.depth = depth;
+            this.splitsLeft = splitsLeft;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitsLeft == 0 || depth <= 1) {
+                return new Perft(game, table).count(depth);
+            }
+
+            MoveList moves = new MoveList();
+            game.legalMoves(moves);
+            List<Subtree> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessGame child = game.copy();
+                child.makeMove(moves.get(i));
+                children.add(new Subtree(child, depth - 1, splitsLeft - 1));
+            }
+
+            long nodes = 0L;
+            for (Subtree child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int hashMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        String fen = args.length > 3
+                ? String.join(" ", List.of(args).subList(3, args.length))
+                : Perft.ReferencePosition.STARTING.fen();
+        ChessGame game = Perft.loadPosition(fen);
+
+        Result baseline = null;
+        int workers = 1;
+        while (true) {
+            // a fresh table per run, so later runs don't get a head start
+            PerftTable table = hashMegabytes > 0 ? new PerftTable(hashMegabytes) : null;
+            try (ParallelPerft perft = new ParallelPerft(workers, 2, table)) {
+                Result result = perft.count(game, depth);
+                if (baseline == null) {
+                    baseline = result;
+                }
+                double speedup = (double) baseline.elapsedNanos() / result.elapsedNanos();
+                System.out.printf("%2d threads: %,d nodes in %.3f s, %,d nodes/s, %.2fx speedup (%.0f%% per thread)%n",
+                        workers, result.nodes(), result.elapsedNanos() / 1e9, result.nodesPerSecond(), speedup,
+                        100 * speedup / workers);
+            }
+            if (workers >= threads) {
+                break;
+            }
+            workers = Math.min(workers * 2, threads);
+        }
+    }
+}
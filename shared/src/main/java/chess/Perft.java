@@ -0,0 +1,173 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * <p>
+ * The counts for the standard reference positions are well known, so any
+ * difference points at a move generation bug, and the time taken is a direct
+ * measure of move generation speed.
+ * <p>
+ * Usage: {@code Perft <depth> [fen]}. Prints the per-move divide, the total
+ * node count and nodes per second. Without a FEN the starting position is used.
+ */
+public final class Perft {
+
+    /**
+     * Standard perft test positions with their published node counts by depth
+     * (index 0 holds depth 1).
+     */
+    public enum ReferencePosition {
+        STARTING("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                20L, 400L, 8_902L, 197_281L, 4_865_609L, 119_060_324L),
+        KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                48L, 2_039L, 97_862L, 4_085_603L, 193_690_690L),
+        ROOK_ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                14L, 191L, 2_812L, 43_238L, 674_624L, 11_030_083L),
+        PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                6L, 264L, 9_467L, 422_333L, 15_833_292L),
+        BUGGY_CASTLING("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                44L, 1_486L, 62_379L, 2_103_487L, 89_941_194L),
+        MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                46L, 2_079L, 89_890L, 3_894_594L, 164_075_551L);
+
+        private final String fen;
+        private final long[] nodes;
+
+        ReferencePosition(String fen, long... nodes) {
+            this.fen = fen;
+            this.nodes = nodes;
+        }
+
+        public String fen() {
+            return fen;
+        }
+
+        /**
+         * @return the published leaf count at the given depth
+         */
+        public long expectedNodes(int depth) {
+            return nodes[depth - 1];
+        }
+
+        public int maxDepth() {
+            return nodes.length;
+        }
+    }
+
+    private final ChessGame game;
+    private final PerftTable table;
+    private final List<MoveList> movesByPly = new ArrayList<>();
+
+    /**
+     * @param game the position to count from; it is changed during a run but is
+     *             always put back the way it was
+     */
+    public Perft(ChessGame game) {
+        this(game, null);
+    }
+
+    /**
+     * @param game  the position to count from
+     * @param table where to cache subtree counts, or null to count every subtree
+     */
+    public Perft(ChessGame game, PerftTable table) {
+        this.game = game;
+        this.table = table;
+    }
+
+    /**
+     * @return the number of leaf nodes {@code depth} plies below the position
+     */
+    public long count(int depth) {
+        return count(depth, 0);
+    }
+
+    /**
+     * Counts each root move's subtree separately, which is how a wrong total gets
+     * narrowed down to the move whose subtree is off
+     *
+     * @return leaf counts keyed by root move, in generation order
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        MoveList moves = movesAt(0);
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            counts.put(PackedMove.toChessMove(moves.get(i)), depth <= 1 ? 1L : count(depth - 1, 1));
+            game.unmakeMove();
+        }
+        return counts;
+    }
+
+    private long count(int depth, int ply) {
+        if (depth == 0) {
+            return 1L;
+        }
+        long key = 0L;
+        if (table != null && depth > 1) {
+            key = game.getZobristKey();
+            long cached = table.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        MoveList moves = movesAt(ply);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0L;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += count(depth - 1, ply + 1);
+            game.unmakeMove();
+        }
+        if (table != null) {
+            table.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    private MoveList movesAt(int ply) {
+        while (movesByPly.size() <= ply) {
+            movesByPly.add(new MoveList());
+        }
+        MoveList moves = movesByPly.get(ply);
+        moves.clear();
+        game.legalMoves(moves);
+        return moves;
+    }
+
+    /**
+     * Builds a game from a FEN string, see {@link ChessGame#fromFen(String)}
+     */
+    public static ChessGame loadPosition(String fen) {
+        return ChessGame.fromFen(fen);
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String fen = args.length > 1
+                ? String.join(" ", List.of(args).subList(1, args.length))
+                : ReferencePosition.STARTING.fen();
+
+        Perft perft = new Perft(loadPosition(fen));
+        long start = System.nanoTime();
+        Map<ChessMove, Long> divide = perft.divide(depth);
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0L;
+        for (Map.Entry<ChessMove, Long> entry : divide.entrySet()) {
+            System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.printf("%nNodes searched: %d%n", total);
+        System.out.printf("Time: %.3f s (%,.0f nodes/s)%n", elapsed / 1e9, total / Math.max(elapsed / 1e9, 1e-9));
+    }
+}
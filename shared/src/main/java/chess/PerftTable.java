@@ -0,0 +1,59 @@
+package chess;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Caches perft subtree counts by position and remaining depth, so a subtree
+ * reached again by another move order is only counted once. It can be shared by
+ * several threads: entries are stored as {@code key ^ count, count} without
+ * locks, and an entry torn by two racing writes fails the key check and is
+ * treated as a miss.
+ */
+public final class PerftTable {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] slots;
+    private final int mask;
+
+    /**
+     * @param megabytes the memory to use; rounded down to a power of two number of
+     *                  entries
+     */
+    public PerftTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Perft table needs at least 1 MB");
+        }
+        long entries = Math.min(Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY), 1L << 29);
+        slots = new long[(int) entries * 2];
+        mask = (int) entries - 1;
+    }
+
+    /**
+     * @return the stored leaf count, or -1 if it is not in the table
+     */
+    long probe(long positionKey, int depth) {
+        long key = key(positionKey, depth);
+        int index = index(key);
+        long count = (long) SLOTS.getOpaque(slots, index + 1);
+        long check = (long) SLOTS.getOpaque(slots, index);
+        return (check ^ count) == key && count > 0 ? count : -1L;
+    }
+
+    void store(long positionKey, int depth, long count) {
+        long key = key(positionKey, depth);
+        int index = index(key);
+        SLOTS.setOpaque(slots, index, key ^ count);
+        SLOTS.setOpaque(slots, index + 1, count);
+    }
+
+    private static long key(long positionKey, int depth) {
+        return positionKey ^ (depth * 0x9E3779B97F4A7C15L);
+    }
+
+    private int index(long key) {
+        return ((int) (key >>> 32) & mask) << 1;
+    }
+}
@@ -0,0 +1,93 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the keys of
+ * everything in it, so adding or removing a piece is a single XOR and the key
+ * can be kept up to date as the board changes.
+ * <p>
+ * The keys come from a fixed seed so they are the same in every JVM, which lets
+ * keys be stored alongside games and compared later.
+ */
+final class Zobrist {
+
+    private static final long SEED = 0x5EED_C4E5_5B0A_4D21L;
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+
+    static {
+        long state = SEED;
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                squares[square] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+
+        long[] rights = new long[4];
+        for (int right = 0; right < rights.length; right++) {
+            state += 0x9E3779B97F4A7C15L;
+            rights[right] = mix(state);
+        }
+        // one key per combination of rights, so a whole rights mask hashes with a single lookup
+        for (int mask = 0; mask < CASTLING.length; mask++) {
+            for (int right = 0; right < rights.length; right++) {
+                if ((mask & (1 << right)) != 0) {
+                    CASTLING[mask] ^= rights[right];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT.length; file++) {
+            state += 0x9E3779B97F4A7C15L;
+            EN_PASSANT[file] = mix(state);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static long pieceSquare(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    static long sideToMove(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * @param column the en passant column, 1-8
+     */
+    static long enPassant(int column) {
+        return EN_PASSANT[column - 1];
+    }
+
+    /**
+     * Recomputes a board's key from scratch, for checking the incremental one
+     */
+    static long boardKey(ChessBoard board) {
+        long key = 0L;
+        for (int index = 0; index < board.pieces.length; index++) {
+            long pieces = board.pieces[index];
+            while (pieces != 0) {
+                key ^= PIECE_SQUARE[index][Long.numberOfTrailingZeros(pieces)];
+                pieces &= pieces - 1;
+            }
+        }
+        return key;
+    }
+}
@@ -0,0 +1,32 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Static evaluation of a position in centipawns, and the piece values used to
+ * order captures
+ */
+public final class Evaluation {
+
+    // indexed by PieceType ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    private Evaluation() {
+    }
+
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Reads the board's incrementally maintained material and piece-square score,
+     * so evaluating costs the same whatever the position
+     *
+     * @return the score from the point of view of the side to move
+     */
+    public static int evaluate(ChessGame game) {
+        int score = game.getBoard().getEvaluation();
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,168 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Searches one position on several threads at once ("Lazy SMP").
+ * <p>
+ * Every worker runs its own iterative deepening search on a copy of the game.
+ * They do not divide up the tree; they only share a {@link TranspositionTable},
+ * so each worker mostly finds positions another one has already scored. Half of
+ * the helpers start one ply deeper than the rest to spread them across the
+ * tree. As soon as one worker finishes, the others are stopped and the result
+ * of the deepest completed iteration wins.
+ * <p>
+ * The workers run on a dedicated pool of daemon threads, so a long analysis
+ * never holds up the server's request threads. Call {@link #close()} to release
+ * them. One search runs at a time; concurrent calls wait their turn.
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final TranspositionTable table;
+    private final SearchEngine[] engines;
+    private final ExecutorService executor;
+
+    /**
+     * @param threads         the number of worker threads
+     * @param tableMegabytes  the size of the shared transposition table
+     */
+    public ParallelSearch(int threads, int tableMegabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parallel search needs at least 1 thread");
+        }
+        table = new TranspositionTable(tableMegabytes);
+        engines = new SearchEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new SearchEngine(table);
+        }
+
+        int pool = POOL_COUNT.incrementAndGet();
+        AtomicInteger workerCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "search-" + pool + "-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreadCount() {
+        return engines.length;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * @param tablebases endgame tables for every worker to score positions with,
+     *                   or null for none
+     */
+    public synchronized void setTablebases(Tablebases tablebases) {
+        for (SearchEngine engine : engines) {
+            engine.setTablebases(tablebases);
+        }
+    }
+
+    /**
+     * Same as {@link #search(ChessGame, SearchLimits, Consumer)} without progress reports
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, result -> { });
+    }
+
+    /**
+     * Searches the position for the side to move. The game itself is not changed.
+     *
+     * @param game        the position to search
+     * @param limits      when to stop; a node limit is shared out between the workers
+     * @param onIteration told about each iteration the first worker completes
+     * @return the deepest completed iteration of any worker, with the nodes of
+     * all workers added up
+     */
+    public synchronized SearchResult search(ChessGame game, SearchLimits limits,
+                                            Consumer<SearchResult> onIteration) {
+        long start = System.nanoTime();
+        table.newSearch();
+        SearchLimits workerLimits = limits.maxNodes() == 0
+                ? limits
+                : new SearchLimits(limits.maxDepth(), Math.max(1L, limits.maxNodes() / engines.length),
+                limits.maxTimeMillis());
+
+        List<Callable<SearchResult>> tasks = new ArrayList<>(engines.length);
+        for (int i = 0; i < engines.length; i++) {
+            SearchEngine engine = engines[i];
+            ChessGame copy = game.copy();
+            Consumer<SearchResult> reporter = i == 0 ? onIteration : result -> { };
+            int firstDepth = 1 + (i & 1);
+            engine.resetStop();
+            tasks.add(() -> {
+                try {
+                    return engine.search(copy, workerLimits, reporter, firstDepth);
+                } finally {
+                    stopAll();
+                }
+            });
+        }
+
+        List<SearchResult> results = new ArrayList<>(engines.length);
+        try {
+            for (Future<SearchResult> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            stopAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search worker failed", e.getCause());
+        }
+        return merge(results, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to finish with what it has
+     */
+    public void stop() {
+        stopAll();
+    }
+
+    private void stopAll() {
+        for (SearchEngine engine : engines) {
+            engine.stop();
+        }
+    }
+
+    /**
+     * Earlier workers win ties, so the main worker's line is preferred
+     */
+    private static SearchResult merge(List<SearchResult> results, long elapsedNanos) {
+        SearchResult best = results.getFirst();
+        long nodes = 0L;
+        for (SearchResult result : results) {
+            nodes += result.nodes();
+            if (result.depth() > best.depth()) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), best.principalVariation(), nodes,
+                elapsedNanos);
+    }
+
+    @Override
+    public void close() {
+        stopAll();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,201 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+
+/**
+ * Looks up opening moves in a Polyglot {@code .bin} book.
+ * <p>
+ * A book is a file of 16-byte big-endian entries sorted by position key: key
+ * (8 bytes), move (2), weight (2) and a learning field (4) that is ignored. The
+ * file is memory-mapped, so a lookup is a binary search over the mapping with
+ * no reading or copying, and one book can be shared by any number of threads.
+ * <p>
+ * Moves are packed as to column, to row, from column, from row (3 bits each,
+ * counted from 0) and promotion piece (knight 1 to queen 4). Castling is stored
+ * as the king taking its own rook and is turned back into the king's two-square
+ * move. Book moves that are not legal in the position, such as ones from a key
+ * collision, are left out.
+ */
+public final class PolyglotBook implements AutoCloseable {
+
+    /**
+     * One of the book's moves for a position
+     *
+     * @param move   the move
+     * @param weight how often it should be played relative to the others
+     */
+    public record Entry(ChessMove move, int weight) {
+    }
+
+    static final int ENTRY_SIZE = 16;
+    private static final ChessPiece.PieceType[] PROMOTIONS = {null, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN};
+
+    private final FileChannel channel;
+    private final ByteBuffer entries;
+    private final int entryCount;
+    private final PolyglotKeys keys;
+
+    private PolyglotBook(FileChannel channel, ByteBuffer entries, PolyglotKeys keys) {
+        this.channel = channel;
+        this.entries = entries;
+        this.entryCount = entries.capacity() / ENTRY_SIZE;
+        this.keys = keys;
+    }
+
+    /**
+     * Opens a book keyed with Polyglot's own table, {@link PolyglotKeys#standard()}
+     */
+    public static PolyglotBook open(Path file) throws IOException {
+        return open(file, PolyglotKeys.standard());
+    }
+
+    public static PolyglotBook open(Path file, PolyglotKeys keys) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a Polyglot book of 16-byte entries under 2 GB");
+            }
+            return new PolyglotBook(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), keys);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * @return the legal book moves for the position, highest weight first, or an
+     * empty list if the position is not in the book
+     */
+    public List<Entry> entries(ChessGame game) {
+        long key = keys.key(game);
+        List<Entry> found = new ArrayList<>();
+        Collection<ChessMove> legal = game.legalMoves();
+        for (int i = firstEntry(key); i < entryCount && keyAt(i) == key; i++) {
+            int offset = i * ENTRY_SIZE;
+            ChessMove move = decodeMove(game, entries.getShort(offset + 8) & 0xFFFF);
+            int weight = entries.getShort(offset + 10) & 0xFFFF;
+            if (legal.contains(move)) {
+                found.add(new Entry(move, weight));
+            }
+        }
+        found.sort((a, b) -> Integer.compare(b.weight(), a.weight()));
+        return found;
+    }
+
+    /**
+     * @return the book move with the highest weight, if the position is in the book
+     */
+    public Optional<ChessMove> bestMove(ChessGame game) {
+        return entries(game).stream().findFirst().map(Entry::move);
+    }
+
+    /**
+     * Picks a book move at random, each with probability proportional to its
+     * weight, so a bot does not always play the same opening
+     */
+    public Optional<ChessMove> weightedMove(ChessGame game, RandomGenerator random) {
+        List<Entry> found = entries(game);
+        int total = 0;
+        for (Entry entry : found) {
+            total += entry.weight();
+        }
+        if (total == 0) {
+            return found.stream().findFirst().map(Entry::move);
+        }
+        int pick = random.nextInt(total);
+        for (Entry entry : found) {
+            pick -= entry.weight();
+            if (pick < 0) {
+                return Optional.of(entry.move());
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking");
+    }
+
+    /**
+     * @return the index of the first entry whose key is not below {@code key}
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_SIZE);
+    }
+
+    static ChessMove decodeMove(ChessGame game, int move) {
+        int toColumn = (move & 7) + 1;
+        int toRow = ((move >>> 3) & 7) + 1;
+        int fromColumn = ((move >>> 6) & 7) + 1;
+        int fromRow = ((move >>> 9) & 7) + 1;
+        int promotion = (move >>> 12) & 7;
+
+        ChessPosition from = ChessPosition.of(fromRow, fromColumn);
+        ChessPiece piece = game.getBoard().getPiece(from);
+        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING && fromColumn == 5
+                && (toColumn == 8 || toColumn == 1) && toRow == fromRow) {
+            toColumn = toColumn == 8 ? 7 : 3;
+        }
+        return new ChessMove(from, ChessPosition.of(toRow, toColumn),
+                promotion < PROMOTIONS.length ? PROMOTIONS[promotion] : null);
+    }
+
+    static int encodeMove(ChessGame game, ChessMove move) {
+        ChessPosition from = move.getStartPosition();
+        ChessPosition to = move.getEndPosition();
+        int toColumn = to.getColumn();
+        ChessPiece piece = game.getBoard().getPiece(from);
+        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING
+                && Math.abs(toColumn - from.getColumn()) == 2) {
+            toColumn = toColumn == 7 ? 8 : 1;
+        }
+
+        int promotion = 0;
+        for (int i = 1; i < PROMOTIONS.length; i++) {
+            if (PROMOTIONS[i] == move.getPromotionPiece()) {
+                promotion = i;
+            }
+        }
+        return (toColumn - 1) | (to.getRow() - 1) << 3 | (from.getColumn() - 1) << 6 | (from.getRow() - 1) << 9
+                | promotion << 12;
+    }
+
+    /**
+     * Closes the file. The mapping itself is released when the book is garbage
+     * collected, so no lookups may be made after closing.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
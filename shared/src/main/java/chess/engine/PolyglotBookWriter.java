@@ -0,0 +1,69 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a Polyglot book from positions and the moves to play in them, for
+ * example from a collection of games. Adding the same move in the same position
+ * again adds to its weight.
+ */
+public final class PolyglotBookWriter {
+
+    private record BookKey(long key, int move) {
+    }
+
+    private final PolyglotKeys keys;
+    private final Map<BookKey, Integer> weights = new LinkedHashMap<>();
+
+    public PolyglotBookWriter() {
+        this(PolyglotKeys.standard());
+    }
+
+    public PolyglotBookWriter(PolyglotKeys keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * @param game   the position, before the move
+     * @param move   a move to play there
+     * @param weight how often to play it; weights are capped at 65535
+     */
+    public void add(ChessGame game, ChessMove move, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Book weights can't be negative");
+        }
+        BookKey bookKey = new BookKey(keys.key(game), PolyglotBook.encodeMove(game, move));
+        weights.merge(bookKey, weight, (a, b) -> Math.min(a + b, 0xFFFF));
+    }
+
+    /**
+     * Writes the book sorted by key, and by weight within a key, as Polyglot expects
+     */
+    public void write(Path file) throws IOException {
+        List<Map.Entry<BookKey, Integer>> sorted = new ArrayList<>(weights.entrySet());
+        sorted.sort(Comparator.<Map.Entry<BookKey, Integer>, Long>comparing(e -> e.getKey().key(),
+                        Long::compareUnsigned)
+                .thenComparing(Map.Entry::getValue, Comparator.reverseOrder())
+                .thenComparing(e -> e.getKey().move()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.size() * PolyglotBook.ENTRY_SIZE);
+        for (Map.Entry<BookKey, Integer> entry : sorted) {
+            buffer.putLong(entry.getKey().key());
+            buffer.putShort((short) entry.getKey().move());
+            buffer.putShort((short) Math.min(entry.getValue(), 0xFFFF));
+            buffer.putInt(0);
+        }
+        Files.write(file, buffer.array());
+    }
+}
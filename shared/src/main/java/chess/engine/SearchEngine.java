@@ -0,0 +1,451 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Picks a move by negamax alpha-beta search with iterative deepening.
+ * <p>
+ * Each iteration searches one ply deeper than the last, trying the previous
+ * principal variation first so most of the tree is cut off early. Leaves are
+ * extended with a quiescence search over captures and promotions so positions
+ * are never scored halfway through an exchange. The node and time limits are
+ * checked every {@value #CHECK_INTERVAL} nodes and abandon the running
+ * iteration, so a search never runs much past its deadline; the result always
+ * comes from the deepest iteration that finished.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, which cuts off positions
+ * reached again by another move order and supplies a best move to try first.
+ * With {@link Tablebases} set, positions they cover are scored from the tables
+ * instead of being searched.
+ * <p>
+ * An engine is not thread safe, but it can be reused for any number of searches
+ * and {@link #stop()} may be called from another thread. Engines on different
+ * threads may share one table.
+ */
+public final class SearchEngine {
+
+    public static final int MATE = 30_000;
+    public static final int MAX_PLY = 64;
+    /**
+     * Scores within this many plies of {@link #MATE} are mates. Tablebase mates
+     * can be further away than {@link #MAX_PLY}.
+     */
+    public static final int LONGEST_MATE = 256;
+
+    private static final int INFINITY = 32_000;
+    private static final int CHECK_INTERVAL = 1024;
+    private static final int MAX_MOVES = 256;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private final MoveList[] movesByPly = new MoveList[MAX_PLY + 1];
+    private final int[][] orderScores = new int[MAX_PLY + 1][MAX_MOVES];
+    // triangular principal variation table: pv[ply] holds the best line from ply onwards
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final long[] keys = new long[MAX_PLY + 1];
+    // the move being searched at each ply on the current path
+    private final int[] path = new int[MAX_PLY + 1];
+    private int[] previousPv = new int[0];
+
+    private final TranspositionTable table;
+    private Tablebases tablebases;
+    private ChessGame game;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+
+    public SearchEngine() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param table where to keep search results; may be shared with other engines
+     */
+    public SearchEngine(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            movesByPly[ply] = new MoveList(MAX_MOVES);
+        }
+    }
+
+    /**
+     * Same as {@link #search(ChessGame, SearchLimits, Consumer)} without progress reports
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, result -> { });
+    }
+
+    /**
+     * Searches the position for the side to move. The game is changed while the
+     * search runs but is always put back the way it was.
+     *
+     * @param game        the position to search
+     * @param limits      when to stop
+     * @param onIteration told about each completed iteration, for analysis output
+     * @return the best move found and how it was found
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration) {
+        stopRequested = false;
+        table.newSearch();
+        return search(game, limits, onIteration, 1);
+    }
+
+    /**
+     * Runs a search without starting a new table generation or clearing an
+     * earlier {@link #stop()}, so it can be one of several threads sharing a table
+     *
+     * @param firstDepth the depth of the first iteration
+     */
+    SearchResult search(ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration, int firstDepth) {
+        long start = System.nanoTime();
+        this.game = game;
+        nodes = 0L;
+        maxNodes = limits.maxNodes() == 0 ? Long.MAX_VALUE : limits.maxNodes();
+        deadline = limits.maxTimeMillis() == 0 ? Long.MAX_VALUE : start + limits.maxTimeMillis() * 1_000_000L;
+        aborted = false;
+        previousPv = new int[0];
+        keys[0] = game.getZobristKey();
+
+        MoveList rootMoves = new MoveList();
+        game.legalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = game.isInCheck(game.getTeamTurn()) ? -MATE : 0;
+            return new SearchResult(null, score, 0, List.of(), 0L, System.nanoTime() - start);
+        }
+
+        SearchResult best = null;
+        for (int depth = Math.min(firstDepth, limits.maxDepth()); depth <= limits.maxDepth(); depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (aborted) {
+                break;
+            }
+            previousPv = Arrays.copyOf(pv[0], pvLength[0]);
+            best = new SearchResult(PackedMove.toChessMove(previousPv[0]), score, depth, toChessMoves(previousPv),
+                    nodes, System.nanoTime() - start);
+            onIteration.accept(best);
+            if (best.isMate() && MATE - Math.abs(score) <= depth) {
+                break;
+            }
+        }
+
+        if (best == null) {
+            // not even one ply finished, so fall back on any legal move
+            ChessMove move = PackedMove.toChessMove(rootMoves.get(0));
+            best = new SearchResult(move, 0, 0, List.of(move), nodes, System.nanoTime() - start);
+        } else {
+            best = new SearchResult(best.bestMove(), best.score(), best.depth(), best.principalVariation(), nodes,
+                    System.nanoTime() - start);
+        }
+        this.game = null;
+        return best;
+    }
+
+    /**
+     * Asks a running search to finish; it returns its last completed iteration
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Clears a {@link #stop()} request ahead of a search started with
+     * {@link #search(ChessGame, SearchLimits, Consumer, int)}
+     */
+    void resetStop() {
+        stopRequested = false;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * @param tablebases endgame tables to score positions with, or null for none
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (ply > 0 && isDraw(ply)) {
+            return 0;
+        }
+        if (ply > 0 && tablebases != null) {
+            int value = tablebases.probeValue(game);
+            if (value != Tablebase.NOT_FOUND) {
+                return tablebaseScore(value, ply);
+            }
+        }
+        if (depth <= 0 || ply == MAX_PLY) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        int tableMove = 0;
+        long entry = table.probe(keys[ply]);
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = movesByPly[ply];
+        moves.clear();
+        game.legalMoves(moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(game.getTeamTurn()) ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, tableMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            path[ply] = move;
+            game.makeMove(move);
+            keys[ply + 1] = game.getZobristKey();
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta
+                ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(keys[ply], bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Turns a tablebase result into a mate score counted from the root
+     */
+    private static int tablebaseScore(int value, int ply) {
+        if (value > 0) {
+            return MATE - ply - value;
+        }
+        return value < 0 ? -MATE + ply + (-value - 1) : 0;
+    }
+
+    /**
+     * Mate scores count plies from the root, but a table entry can be reached at
+     * any ply, so they are stored counting from the entry's own position
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - LONGEST_MATE) {
+            return score + ply;
+        }
+        return score <= -MATE + LONGEST_MATE ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - LONGEST_MATE) {
+            return score - ply;
+        }
+        return score <= -MATE + LONGEST_MATE ? score + ply : score;
+    }
+
+    /**
+     * Resolves captures and promotions until the position is quiet. When in check
+     * every evasion is tried, since standing pat is not an option.
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        int standPat = Evaluation.evaluate(game);
+        if (ply == MAX_PLY) {
+            return standPat;
+        }
+        if (!inCheck) {
+            if (standPat >= beta) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+        }
+
+        MoveList moves = movesByPly[ply];
+        moves.clear();
+        game.legalMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, 0);
+
+        int bestScore = inCheck ? -INFINITY : standPat;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            if (!inCheck && !PackedMove.isCapture(move) && PackedMove.promotion(move) == null) {
+                continue;
+            }
+            path[ply] = move;
+            game.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Counts a node and checks the limits every so often
+     *
+     * @return True if the search has to stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0
+                && (stopRequested || nodes >= maxNodes || System.nanoTime() - deadline >= 0)) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * Only positions since the last capture or pawn move, on the search path, can
+     * repeat; earlier game history is not known to the search.
+     */
+    private boolean isDraw(int ply) {
+        int halfmoveClock = game.getHalfmoveClock();
+        if (halfmoveClock >= 100) {
+            return true;
+        }
+        for (int i = ply - 2; i >= 0 && ply - i <= halfmoveClock; i -= 2) {
+            if (keys[i] == keys[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Orders the previous principal variation move first, then the table's best
+     * move, then captures by most valuable victim and least valuable attacker,
+     * then promotions, then the rest
+     */
+    private void scoreMoves(MoveList moves, int ply, int tableMove) {
+        ChessBoard board = game.getBoard();
+        int pvMove = ply < previousPv.length && isOnPreviousPv(ply) ? previousPv[ply] : -1;
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = 0;
+            if (move == pvMove) {
+                score = 1_000_000;
+            } else if (move == tableMove) {
+                score = 900_000;
+            } else if (PackedMove.isCapture(move)) {
+                ChessPiece victim = board.getPiece(PackedMove.to(move));
+                int victimValue = victim == null
+                        ? Evaluation.pieceValue(ChessPiece.PieceType.PAWN)
+                        : Evaluation.pieceValue(victim.getPieceType());
+                int attackerValue = Evaluation.pieceValue(board.getPiece(PackedMove.from(move)).getPieceType());
+                score = 100_000 + victimValue * 10 - attackerValue;
+            }
+            if (PackedMove.promotion(move) != null) {
+                score += 50_000 + Evaluation.pieceValue(PackedMove.promotion(move));
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * @return True if every move so far on the current path follows the previous
+     * iteration's principal variation
+     */
+    private boolean isOnPreviousPv(int ply) {
+        for (int i = 0; i < ply; i++) {
+            if (path[i] != previousPv[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Selection sort, one step at a time: after a cutoff the rest is never sorted
+     */
+    private int nextMove(MoveList moves, int ply, int index) {
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - (ply + 1));
+        pvLength[ply] = Math.max(length, ply + 1);
+    }
+
+    private static List<ChessMove> toChessMoves(int[] line) {
+        List<ChessMove> moves = new ArrayList<>(line.length);
+        for (int move : line) {
+            moves.add(PackedMove.toChessMove(move));
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,34 @@
+package chess.engine;
+
+/**
+ * How far a search may go. It stops at whichever limit it reaches first;
+ * a node or time limit of 0 means no limit.
+ *
+ * @param maxDepth      the deepest iteration to run, in plies
+ * @param maxNodes      the most positions to visit
+ * @param maxTimeMillis the hard deadline, measured from the start of the search
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxTimeMillis) {
+
+    public SearchLimits {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1");
+        }
+        if (maxNodes < 0 || maxTimeMillis < 0) {
+            throw new IllegalArgumentException("Node and time limits can't be negative");
+        }
+        maxDepth = Math.min(maxDepth, SearchEngine.MAX_PLY);
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0L, 0L);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(SearchEngine.MAX_PLY, maxNodes, 0L);
+    }
+
+    public static SearchLimits time(long maxTimeMillis) {
+        return new SearchLimits(SearchEngine.MAX_PLY, 0L, maxTimeMillis);
+    }
+}
@@ -0,0 +1,49 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of the deepest completed search iteration
+ *
+ * @param bestMove           the move to play, or null if the side to move has none
+ * @param score              centipawns from the side to move's point of view, or
+ *                           a mate score within {@link SearchEngine#LONGEST_MATE} of
+ *                           {@link SearchEngine#MATE}
+ * @param depth              the depth of the iteration the move came from
+ * @param principalVariation the line both sides are expected to play, starting
+ *                           with {@code bestMove}
+ * @param nodes              positions visited over the whole search
+ * @param elapsedNanos       time spent over the whole search
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, List<ChessMove> principalVariation,
+                           long nodes, long elapsedNanos) {
+
+    public SearchResult {
+        principalVariation = List.copyOf(principalVariation);
+    }
+
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0L : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= SearchEngine.MATE - SearchEngine.LONGEST_MATE;
+    }
+
+    /**
+     * @return moves until mate, negative when the side to move is the one being
+     * mated, or 0 if the score is not a mate
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = SearchEngine.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+}
@@ -0,0 +1,657 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The distance to mate of every position with one set of material, such as
+ * king and queen against king ("KQK").
+ * <p>
+ * Positions are numbered by side to move and then the square of each piece, in
+ * the order the material is written, so a lookup is one index calculation and
+ * one byte read. Each byte holds the result for the side to move: 0 for a draw,
+ * {@code n > 0} for a win with mate in {@code n} plies, and {@code -(n + 1)} for
+ * a loss to mate in {@code n} plies. Castling and en passant are not covered.
+ * <p>
+ * Tables are generated by retrograde analysis: checkmates are found first, and
+ * results are then passed backwards to the positions one move earlier, one ply
+ * at a time, by generating the moves that could have led to each solved
+ * position. A position with a move to a lost position is won; one whose every
+ * move leads to a won position is lost. Captures and promotions lead into
+ * smaller tables, which are generated first.
+ */
+public final class Tablebase {
+
+    public static final int MAX_PIECES = 4;
+    static final String FILE_SUFFIX = ".tb";
+    static final byte ILLEGAL = Byte.MIN_VALUE;
+    static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    private static final byte UNRESOLVED = Byte.MAX_VALUE;
+    private static final int MAGIC = 0x43544231;
+    private static final int HEADER_SIZE = 16;
+    // the order pieces are written in within each side
+    private static final String PIECE_LETTERS = "KQRBNP";
+    private static final ChessPiece.PieceType[] LETTER_TYPES = {ChessPiece.PieceType.KING,
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.PAWN};
+    private static final int[] LETTER_VALUES = {0, 9, 5, 3, 3, 1};
+    // a side's material signature holds 3 bits of count for each piece after the king
+    private static final int COUNT_BITS = 3;
+    private static final int SIDE_BITS = COUNT_BITS * (PIECE_LETTERS.length() - 1);
+
+    private static final int[][] KING_STEPS = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1},
+            {1, -1}};
+    private static final int[][] KNIGHT_STEPS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1},
+            {-1, 2}};
+    private static final int[][] ROOK_STEPS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_STEPS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+    private final String material;
+    private final int signature;
+    private final ChessGame.TeamColor[] slotColors;
+    private final ChessPiece.PieceType[] slotTypes;
+    private final ByteBuffer values;
+
+    private Tablebase(String material, ByteBuffer values) {
+        this.material = material;
+        String[] sides = sides(material);
+        signature = signature(sideSignature(sides[0]), sideSignature(sides[1]));
+        int pieces = sides[0].length() + sides[1].length();
+        slotColors = new ChessGame.TeamColor[pieces];
+        slotTypes = new ChessPiece.PieceType[pieces];
+        for (int i = 0; i < pieces; i++) {
+            boolean white = i < sides[0].length();
+            char letter = white ? sides[0].charAt(i) : sides[1].charAt(i - sides[0].length());
+            slotColors[i] = white ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            slotTypes[i] = LETTER_TYPES[PIECE_LETTERS.indexOf(letter)];
+        }
+        this.values = values;
+    }
+
+    /**
+     * Maps a table file written by {@link #write(Path)}. The material is taken from
+     * the file name, such as {@code KQK.tb}.
+     */
+    public static Tablebase open(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(FILE_SUFFIX)) {
+            throw new IOException(file + " is not a tablebase file");
+        }
+        String material = normalize(name.substring(0, name.length() - FILE_SUFFIX.length()));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int pieces = material.length();
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != pieces
+                    || mapped.capacity() != HEADER_SIZE + positionCount(pieces)) {
+                throw new IOException(file + " is not a valid " + material + " tablebase");
+            }
+            return new Tablebase(material, mapped.slice(HEADER_SIZE, positionCount(pieces)));
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(slotTypes.length);
+        header.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header, 0);
+            channel.write(values.duplicate().clear(), HEADER_SIZE);
+        }
+    }
+
+    public String getMaterial() {
+        return material;
+    }
+
+    /**
+     * @return the material as {@link #signature(int, int)} packs it
+     */
+    int getSignature() {
+        return signature;
+    }
+
+    public int getPieceCount() {
+        return slotTypes.length;
+    }
+
+    /**
+     * @return the longest win in the table, in plies, or 0 if the material can't
+     * force mate
+     */
+    public int longestWin() {
+        int longest = 0;
+        for (int index = 0; index < values.capacity(); index++) {
+            longest = Math.max(longest, values.get(index));
+        }
+        return longest;
+    }
+
+    private static int positionCount(int pieces) {
+        return 2 << (6 * pieces);
+    }
+
+    /**
+     * Splits a material name into the white and black pieces, each starting with
+     * the king. A 'v' between the sides is allowed, as in "KQvK".
+     */
+    static String[] sides(String material) {
+        String letters = material.toUpperCase().replace("V", "");
+        int blackKing = letters.indexOf('K', 1);
+        if (!letters.startsWith("K") || blackKing < 0 || letters.indexOf('K', blackKing + 1) >= 0) {
+            throw new IllegalArgumentException("Material must be two kings and their pieces, like KQK: " + material);
+        }
+        if (letters.length() > MAX_PIECES) {
+            throw new IllegalArgumentException("Tablebases go up to " + MAX_PIECES + " pieces: " + material);
+        }
+        return new String[]{sortPieces(letters.substring(0, blackKing)), sortPieces(letters.substring(blackKing))};
+    }
+
+    private static String sortPieces(String side) {
+        for (char letter : side.toCharArray()) {
+            if (PIECE_LETTERS.indexOf(letter) < 0) {
+                throw new IllegalArgumentException("Unknown piece letter '" + letter + "'");
+            }
+        }
+        return side.chars().boxed()
+                .sorted(Comparator.comparingInt(PIECE_LETTERS::indexOf))
+                .map(Character::toString)
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * @return the material with the stronger side first, which is how tables are named
+     */
+    static String normalize(String material) {
+        String[] sides = sides(material);
+        int white = strength(sides[0]);
+        int black = strength(sides[1]);
+        if (black > white || (black == white && sides[1].compareTo(sides[0]) < 0)) {
+            return sides[1] + sides[0];
+        }
+        return sides[0] + sides[1];
+    }
+
+    private static int strength(String side) {
+        int strength = 0;
+        for (char letter : side.toCharArray()) {
+            strength += LETTER_VALUES[PIECE_LETTERS.indexOf(letter)];
+        }
+        return strength;
+    }
+
+    /**
+     * Packs the material of both sides into one number, for looking tables up
+     * without building their names
+     *
+     * @param first  the side written first, from {@link #sideSignature}
+     * @param second the side written second
+     */
+    static int signature(int first, int second) {
+        return first << SIDE_BITS | second;
+    }
+
+    /**
+     * @return the count of each piece other than the king, in table name order,
+     * packed {@value #COUNT_BITS} bits apiece
+     */
+    static int sideSignature(ChessBoard board, ChessGame.TeamColor color) {
+        int signature = 0;
+        for (int i = 1; i < LETTER_TYPES.length; i++) {
+            signature = signature << COUNT_BITS | board.countPieces(color, LETTER_TYPES[i]);
+        }
+        return signature;
+    }
+
+    private static int sideSignature(String side) {
+        int signature = 0;
+        for (int i = 1; i < PIECE_LETTERS.length(); i++) {
+            char letter = PIECE_LETTERS.charAt(i);
+            signature = signature << COUNT_BITS | (int) side.chars().filter(c -> c == letter).count();
+        }
+        return signature;
+    }
+
+    /**
+     * @return the material of one side as written in a table name
+     */
+    static String side(ChessBoard board, ChessGame.TeamColor color) {
+        StringBuilder side = new StringBuilder();
+        for (int i = 0; i < LETTER_TYPES.length; i++) {
+            side.append(String.valueOf(PIECE_LETTERS.charAt(i)).repeat(board.countPieces(color, LETTER_TYPES[i])));
+        }
+        return side.toString();
+    }
+
+    /**
+     * @return the tables a capture or promotion from this material can lead to,
+     * not counting bare kings
+     */
+    static List<String> successors(String material) {
+        String[] sides = sides(material);
+        List<String> successors = new ArrayList<>();
+        for (int side = 0; side < 2; side++) {
+            String own = sides[side];
+            String other = sides[1 - side];
+            for (int i = 1; i < own.length(); i++) {
+                String captured = own.substring(0, i) + own.substring(i + 1);
+                if (captured.length() + other.length() > 2) {
+                    successors.add(normalize(side == 0 ? captured + other : other + captured));
+                }
+                if (own.charAt(i) == 'P') {
+                    for (char promotion : "QRBN".toCharArray()) {
+                        String promoted = own.substring(0, i) + promotion + own.substring(i + 1);
+                        successors.add(normalize(side == 0 ? promoted + other : other + promoted));
+                    }
+                }
+            }
+        }
+        return successors.stream().distinct().toList();
+    }
+
+    /**
+     * @param flipped True to read the position with the colors swapped and the
+     *                board turned around, for a table named from the other side
+     * @return the stored byte for the position
+     */
+    int probe(ChessBoard board, ChessGame.TeamColor sideToMove, boolean flipped) {
+        // built slot by slot rather than through an array of squares, so a probe allocates nothing
+        int index = (flipped ? opponent(sideToMove) : sideToMove).ordinal();
+        for (int slot = 0; slot < slotTypes.length; slot++) {
+            int earlier = 0;
+            while (earlier < slot && sameSlot(slot - earlier - 1, slot)) {
+                earlier++;
+            }
+            index = (index << 6) | slotSquare(board, slot, earlier, flipped);
+        }
+        return values.get(index);
+    }
+
+    /**
+     * Finds the square of the piece in a slot. Identical pieces fill their slots
+     * in square order, as {@link #canonicalize} numbers them.
+     *
+     * @param earlier how many slots before this one hold the same piece
+     * @return the square as the table sees it, turned around if flipped
+     */
+    private int slotSquare(ChessBoard board, int slot, int earlier, boolean flipped) {
+        ChessGame.TeamColor color = flipped ? opponent(slotColors[slot]) : slotColors[slot];
+        for (int tableSquare = 0; tableSquare < 64; tableSquare++) {
+            ChessPiece piece = board.getPiece(flipped ? tableSquare ^ 56 : tableSquare);
+            if (piece != null && piece.getTeamColor() == color && piece.getPieceType() == slotTypes[slot]
+                    && earlier-- == 0) {
+                return tableSquare;
+            }
+        }
+        throw new IllegalArgumentException("Board does not have the " + material + " pieces");
+    }
+
+    private int index(ChessGame.TeamColor sideToMove, int[] squares) {
+        int index = sideToMove.ordinal();
+        for (int square : squares) {
+            index = (index << 6) | square;
+        }
+        return index;
+    }
+
+    /**
+     * Identical pieces are numbered in square order, so each position has one index
+     */
+    private void canonicalize(int[] squares) {
+        for (int i = 1; i < squares.length; i++) {
+            if (sameSlot(i - 1, i) && squares[i - 1] > squares[i]) {
+                int square = squares[i];
+                squares[i] = squares[i - 1];
+                squares[i - 1] = square;
+            }
+        }
+    }
+
+    private boolean sameSlot(int first, int second) {
+        return slotColors[first] == slotColors[second] && slotTypes[first] == slotTypes[second];
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    /**
+     * Solves every position with the given material
+     *
+     * @param material    the material, such as "KQK"
+     * @param smallerTables finds the table for material a capture or promotion
+     *                      leads to, as listed by {@link #successors(String)}
+     */
+    static Tablebase generate(String material, Function<String, Tablebase> smallerTables) {
+        return new Generator(new Tablebase(normalize(material), null), smallerTables).run();
+    }
+
+    /**
+     * Works out one table. Children reached without a capture or promotion stay
+     * in the table and are counted in {@code remaining}; the rest are looked up in
+     * the smaller tables straight away.
+     */
+    private static final class Generator {
+
+        private final Tablebase table;
+        private final Function<String, Tablebase> smallerTables;
+        private final int pieces;
+        private final byte[] values;
+        private final byte[] remaining;
+        private final byte[] longestWin;
+        private final BitSet cannotLose;
+        private final List<int[]> buckets = new ArrayList<>();
+        private final List<Integer> bucketSizes = new ArrayList<>();
+
+        private Generator(Tablebase table, Function<String, Tablebase> smallerTables) {
+            this.table = table;
+            this.smallerTables = smallerTables;
+            this.pieces = table.slotTypes.length;
+            int count = positionCount(pieces);
+            values = new byte[count];
+            remaining = new byte[count];
+            longestWin = new byte[count];
+            cannotLose = new BitSet(count);
+        }
+
+        private Tablebase run() {
+            Arrays.fill(values, UNRESOLVED);
+            solveDirectly();
+
+            int[] squares = new int[pieces];
+            int[] predecessors = new int[256];
+            for (int plies = 0; plies < buckets.size(); plies++) {
+                int[] bucket = buckets.get(plies);
+                int size = bucketSizes.get(plies);
+                for (int i = 0; i < size; i++) {
+                    int index = bucket[i] >>> 1;
+                    boolean win = (bucket[i] & 1) != 0;
+                    if (values[index] != UNRESOLVED) {
+                        continue;
+                    }
+                    if (plies > 126) {
+                        throw new IllegalStateException("Mate distance too long to store in " + table.material);
+                    }
+                    values[index] = (byte) (win ? plies : -(plies + 1));
+
+                    int count = predecessors(index, squares, predecessors);
+                    for (int p = 0; p < count; p++) {
+                        int predecessor = predecessors[p];
+                        if (values[predecessor] != UNRESOLVED) {
+                            continue;
+                        }
+                        if (!win) {
+                            push(predecessor, plies + 1, true);
+                        } else {
+                            longestWin[predecessor] = (byte) Math.max(longestWin[predecessor], plies);
+                            if (--remaining[predecessor] == 0 && !cannotLose.get(predecessor)) {
+                                push(predecessor, longestWin[predecessor] + 1, false);
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (int index = 0; index < values.length; index++) {
+                if (values[index] == UNRESOLVED) {
+                    values[index] = 0;
+                }
+            }
+            return new Tablebase(table.material, ByteBuffer.wrap(values));
+        }
+
+        /**
+         * Marks impossible positions, finds mates and stalemates, counts the moves
+         * that stay in the table and scores the ones that leave it
+         */
+        private void solveDirectly() {
+            ChessBoard board = new ChessBoard();
+            ChessGame game = new ChessGame();
+            game.setBoard(board);
+            MoveList moves = new MoveList();
+            int[] squares = new int[pieces];
+            int[] placed = new int[pieces];
+            Arrays.fill(placed, -1);
+
+            for (int index = 0; index < values.length; index++) {
+                ChessGame.TeamColor side = decode(index, squares);
+                if (!isValid(squares)) {
+                    values[index] = ILLEGAL;
+                    continue;
+                }
+                place(board, squares, placed);
+                game.setTeamTurn(side);
+                // the side that just moved can't have left its king attacked
+                if (game.isInCheck(opponent(side))) {
+                    values[index] = ILLEGAL;
+                    continue;
+                }
+
+                moves.clear();
+                game.legalMoves(moves);
+                if (moves.isEmpty()) {
+                    if (game.isInCheck(side)) {
+                        push(index, 0, false);
+                    } else {
+                        values[index] = 0;
+                    }
+                    continue;
+                }
+
+                int inTable = 0;
+                int bestWin = Integer.MAX_VALUE;
+                int longest = 0;
+                boolean drawn = false;
+                for (int i = 0; i < moves.size(); i++) {
+                    int move = moves.get(i);
+                    if (!PackedMove.isCapture(move) && PackedMove.promotion(move) == null) {
+                        inTable++;
+                        continue;
+                    }
+                    game.makeMove(move);
+                    int child = probeSmaller(board, game.getTeamTurn());
+                    game.unmakeMove();
+                    if (child > 0) {
+                        longest = Math.max(longest, child);
+                    } else if (child < 0) {
+                        bestWin = Math.min(bestWin, -child);
+                    } else {
+                        drawn = true;
+                    }
+                }
+
+                remaining[index] = (byte) inTable;
+                longestWin[index] = (byte) longest;
+                if (bestWin != Integer.MAX_VALUE) {
+                    cannotLose.set(index);
+                    push(index, bestWin, true);
+                } else if (drawn) {
+                    cannotLose.set(index);
+                } else if (inTable == 0) {
+                    push(index, longest + 1, false);
+                }
+            }
+        }
+
+        private int probeSmaller(ChessBoard board, ChessGame.TeamColor sideToMove) {
+            String white = side(board, ChessGame.TeamColor.WHITE);
+            String black = side(board, ChessGame.TeamColor.BLACK);
+            if (white.length() + black.length() == 2) {
+                return 0;
+            }
+            String material = normalize(white + black);
+            Tablebase smaller = smallerTables.apply(material);
+            if (smaller == null) {
+                throw new IllegalStateException("Generating " + table.material + " needs the " + material + " table");
+            }
+            return smaller.probe(board, sideToMove, !material.equals(white + black));
+        }
+
+        private void push(int index, int plies, boolean win) {
+            while (buckets.size() <= plies) {
+                buckets.add(new int[1024]);
+                bucketSizes.add(0);
+            }
+            int[] bucket = buckets.get(plies);
+            int size = bucketSizes.get(plies);
+            if (size == bucket.length) {
+                bucket = Arrays.copyOf(bucket, size * 2);
+                buckets.set(plies, bucket);
+            }
+            bucket[size] = index << 1 | (win ? 1 : 0);
+            bucketSizes.set(plies, size + 1);
+        }
+
+        private ChessGame.TeamColor decode(int index, int[] squares) {
+            for (int slot = pieces - 1; slot >= 0; slot--) {
+                squares[slot] = index & 63;
+                index >>>= 6;
+            }
+            return ChessGame.TeamColor.values()[index];
+        }
+
+        /**
+         * @return True if no two pieces share a square, no pawn is on the first or
+         * last row, and identical pieces are in square order
+         */
+        private boolean isValid(int[] squares) {
+            for (int i = 0; i < pieces; i++) {
+                for (int j = i + 1; j < pieces; j++) {
+                    if (squares[i] == squares[j]) {
+                        return false;
+                    }
+                }
+                if (table.slotTypes[i] == ChessPiece.PieceType.PAWN && (squares[i] < 8 || squares[i] >= 56)) {
+                    return false;
+                }
+                if (i > 0 && table.sameSlot(i - 1, i) && squares[i - 1] > squares[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void place(ChessBoard board, int[] squares, int[] placed) {
+            for (int slot = 0; slot < pieces; slot++) {
+                if (placed[slot] >= 0) {
+                    board.addPiece(position(placed[slot]), null);
+                }
+            }
+            for (int slot = 0; slot < pieces; slot++) {
+                board.addPiece(position(squares[slot]),
+                        ChessPiece.of(table.slotColors[slot], table.slotTypes[slot]));
+                placed[slot] = squares[slot];
+            }
+        }
+
+        private static ChessPosition position(int square) {
+            return ChessPosition.of(square / 8 + 1, square % 8 + 1);
+        }
+
+        /**
+         * Lists the positions one move before this one, where the other side moved
+         * a piece without capturing or promoting
+         *
+         * @return how many were written to {@code out}
+         */
+        private int predecessors(int index, int[] squares, int[] out) {
+            ChessGame.TeamColor sideToMove = decode(index, squares);
+            ChessGame.TeamColor mover = opponent(sideToMove);
+            long occupied = 0L;
+            for (int square : squares) {
+                occupied |= 1L << square;
+            }
+
+            int count = 0;
+            int[] before = new int[pieces];
+            for (int slot = 0; slot < pieces; slot++) {
+                if (table.slotColors[slot] != mover) {
+                    continue;
+                }
+                int square = squares[slot];
+                int row = square / 8;
+                int col = square % 8;
+                long origins = switch (table.slotTypes[slot]) {
+                    case KING -> steps(row, col, KING_STEPS, occupied);
+                    case KNIGHT -> steps(row, col, KNIGHT_STEPS, occupied);
+                    case ROOK -> rays(row, col, ROOK_STEPS, occupied);
+                    case BISHOP -> rays(row, col, BISHOP_STEPS, occupied);
+                    case QUEEN -> rays(row, col, ROOK_STEPS, occupied) | rays(row, col, BISHOP_STEPS, occupied);
+                    case PAWN -> pawnOrigins(mover, square, occupied);
+                };
+                while (origins != 0) {
+                    int origin = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    System.arraycopy(squares, 0, before, 0, pieces);
+                    before[slot] = origin;
+                    table.canonicalize(before);
+                    out[count++] = table.index(mover, before);
+                }
+            }
+            return count;
+        }
+
+        private static long steps(int row, int col, int[][] steps, long occupied) {
+            long origins = 0L;
+            for (int[] step : steps) {
+                int r = row + step[0];
+                int c = col + step[1];
+                if (r >= 0 && r < 8 && c >= 0 && c < 8 && (occupied & (1L << (r * 8 + c))) == 0) {
+                    origins |= 1L << (r * 8 + c);
+                }
+            }
+            return origins;
+        }
+
+        private static long rays(int row, int col, int[][] directions, long occupied) {
+            long origins = 0L;
+            for (int[] direction : directions) {
+                int r = row + direction[0];
+                int c = col + direction[1];
+                while (r >= 0 && r < 8 && c >= 0 && c < 8 && (occupied & (1L << (r * 8 + c))) == 0) {
+                    origins |= 1L << (r * 8 + c);
+                    r += direction[0];
+                    c += direction[1];
+                }
+            }
+            return origins;
+        }
+
+        /**
+         * A pawn came from one square behind, or two if it is on its double-push row
+         */
+        private static long pawnOrigins(ChessGame.TeamColor color, int square, long occupied) {
+            boolean white = color == ChessGame.TeamColor.WHITE;
+            int row = square / 8 + 1;
+            int back = white ? -8 : 8;
+            long origins = 0L;
+            if (white ? row >= 3 : row <= 6) {
+                int single = square + back;
+                if ((occupied & (1L << single)) == 0) {
+                    origins |= 1L << single;
+                    if (row == (white ? 4 : 5) && (occupied & (1L << (single + back))) == 0) {
+                        origins |= 1L << (single + back);
+                    }
+                }
+            }
+            return origins;
+        }
+    }
+}
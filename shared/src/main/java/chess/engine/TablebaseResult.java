@@ -0,0 +1,28 @@
+package chess.engine;
+
+/**
+ * What a tablebase knows about a position, for the side to move
+ *
+ * @param outcome how the game ends with best play
+ * @param plies   plies until mate with best play, or 0 for a draw
+ */
+public record TablebaseResult(Outcome outcome, int plies) {
+
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    /**
+     * @return full moves until mate, counting the mating move, negative when the
+     * side to move is the one mated, or 0 for a draw
+     */
+    public int movesToMate() {
+        return switch (outcome) {
+            case WIN -> (plies + 1) / 2;
+            case LOSS -> -(plies / 2);
+            case DRAW -> 0;
+        };
+    }
+}
@@ -0,0 +1,194 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A set of {@link Tablebase} files in one directory, looked up by the material
+ * on the board.
+ * <p>
+ * Tables are named with the stronger side first, so a position where black has
+ * the extra piece is looked up with the board turned around and the colors
+ * swapped. A probe is a few counts and one byte read from the mapped file, so it
+ * is cheap enough to make at every node of a search. The set is read only once
+ * opened and can be shared by any number of threads.
+ */
+public final class Tablebases {
+
+    private final Map<String, Tablebase> tables;
+    // the same tables sorted by material signature, so a probe finds one without allocating
+    private final int[] signatures;
+    private final Tablebase[] bySignature;
+    private final int maxPieces;
+
+    private Tablebases(Map<String, Tablebase> tables) {
+        this.tables = tables;
+        this.bySignature = tables.values().stream()
+                .sorted(Comparator.comparingInt(Tablebase::getSignature))
+                .toArray(Tablebase[]::new);
+        this.signatures = Arrays.stream(bySignature).mapToInt(Tablebase::getSignature).toArray();
+        this.maxPieces = tables.values().stream().mapToInt(Tablebase::getPieceCount).max().orElse(0);
+    }
+
+    /**
+     * Maps every {@code .tb} file in the directory
+     */
+    public static Tablebases open(Path directory) throws IOException {
+        Map<String, Tablebase> tables = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Tablebase.FILE_SUFFIX)) {
+            for (Path file : files) {
+                Tablebase table = Tablebase.open(file);
+                tables.put(table.getMaterial(), table);
+            }
+        }
+        return new Tablebases(tables);
+    }
+
+    /**
+     * Generates the tables for the given material, along with every smaller table
+     * they depend on, writes them to the directory and opens them. Tables already
+     * in the directory are reused rather than generated again.
+     *
+     * @param materials material such as "KQK", "KRK" or "KPK", at most
+     *                  {@value Tablebase#MAX_PIECES} pieces including the kings
+     */
+    public static Tablebases generate(Path directory, String... materials) throws IOException {
+        Files.createDirectories(directory);
+        Map<String, Tablebase> tables = new TreeMap<>(open(directory).tables);
+        try {
+            for (String material : materials) {
+                generate(directory, Tablebase.normalize(material), tables);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new Tablebases(tables);
+    }
+
+    private static Tablebase generate(Path directory, String material, Map<String, Tablebase> tables) {
+        Tablebase existing = tables.get(material);
+        if (existing != null) {
+            return existing;
+        }
+        for (String successor : Tablebase.successors(material)) {
+            generate(directory, successor, tables);
+        }
+        Path file = directory.resolve(material + Tablebase.FILE_SUFFIX);
+        try {
+            Tablebase.generate(material, tables::get).write(file);
+            // use the mapped copy so the generated array can be collected
+            Tablebase table = Tablebase.open(file);
+            tables.put(material, table);
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the material of every table in the set, such as "KQK"
+     */
+    public Set<String> materials() {
+        return tables.keySet();
+    }
+
+    /**
+     * @return the table for the material, such as "KQK" or "KvKR"
+     */
+    public Optional<Tablebase> table(String material) {
+        return Optional.ofNullable(tables.get(Tablebase.normalize(material)));
+    }
+
+    /**
+     * @return the most pieces, kings included, of any table in the set
+     */
+    public int maxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Looks up the position for the side to move
+     *
+     * @return the result with best play, or empty if there is no table for the
+     * material or the position has castling rights or a possible en passant
+     * capture
+     */
+    public Optional<TablebaseResult> probe(ChessGame game) {
+        int value = probeValue(game);
+        if (value == Tablebase.NOT_FOUND) {
+            return Optional.empty();
+        }
+        if (value > 0) {
+            return Optional.of(new TablebaseResult(TablebaseResult.Outcome.WIN, value));
+        }
+        if (value < 0) {
+            return Optional.of(new TablebaseResult(TablebaseResult.Outcome.LOSS, -value - 1));
+        }
+        return Optional.of(new TablebaseResult(TablebaseResult.Outcome.DRAW, 0));
+    }
+
+    /**
+     * @return the stored byte for the position, see {@link Tablebase}, or
+     * {@link Tablebase#NOT_FOUND}
+     */
+    int probeValue(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        if (board.countPieces() > maxPieces || game.getCastlingRights() != 0) {
+            return Tablebase.NOT_FOUND;
+        }
+        if (game.getEnPassantColumn() != 0
+                && board.countPieces(game.getTeamTurn(), ChessPiece.PieceType.PAWN) > 0) {
+            // the tables don't know about the en passant capture
+            return Tablebase.NOT_FOUND;
+        }
+        int white = Tablebase.sideSignature(board, ChessGame.TeamColor.WHITE);
+        int black = Tablebase.sideSignature(board, ChessGame.TeamColor.BLACK);
+        Tablebase table = bySignature(Tablebase.signature(white, black));
+        boolean flipped = false;
+        if (table == null) {
+            table = bySignature(Tablebase.signature(black, white));
+            flipped = true;
+        }
+        if (table == null) {
+            return Tablebase.NOT_FOUND;
+        }
+        int value = table.probe(board, game.getTeamTurn(), flipped);
+        return value == Tablebase.ILLEGAL ? Tablebase.NOT_FOUND : value;
+    }
+
+    private Tablebase bySignature(int signature) {
+        int found = Arrays.binarySearch(signatures, signature);
+        return found < 0 ? null : bySignature[found];
+    }
+
+    /**
+     * Generates tables from the command line: a directory, then the material to
+     * generate, such as {@code tablebases KQK KRK KPK KQKR}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: Tablebases <directory> <material>...");
+            return;
+        }
+        long start = System.nanoTime();
+        Tablebases tablebases = generate(Path.of(args[0]), Arrays.copyOfRange(args, 1, args.length));
+        for (String material : tablebases.materials()) {
+            Tablebase table = tablebases.tables.get(material);
+            System.out.printf("%-6s longest mate %d plies%n", material, table.longestWin());
+        }
+        System.out.printf("Done in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,173 @@
+package chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of search results, keyed by {@link chess.ChessGame#getZobristKey()}.
+ * <p>
+ * Each entry is two {@code long}s in one primitive array: the key XORed with the
+ * data, then the data. Threads read and write without locks; if two writes to
+ * the same slot interleave, the stored key no longer matches once the data is
+ * XORed back out, so a torn entry reads as a miss instead of a wrong result.
+ * <p>
+ * Entry data, low bits first: move (20 bits, a {@link chess.PackedMove}), score
+ * (16 bits, signed), depth (8 bits), bound (2 bits) and search generation
+ * (6 bits). A slot is replaced unless it holds a deeper result for a different
+ * position from the current search.
+ */
+public final class TranspositionTable {
+
+    /**
+     * The stored score is at most the real score: the search failed low
+     */
+    public static final int UPPER_BOUND = 1;
+    /**
+     * The stored score is at least the real score: the search failed high
+     */
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int FILL_SAMPLE = 1000;
+
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int GENERATION_SHIFT = 46;
+
+    private final long[] slots;
+    private final int mask;
+    private volatile int generation;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param megabytes the memory to use; rounded down to a power of two number of
+     *                  entries
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        entries = Math.min(entries, 1L << 29);
+        slots = new long[(int) entries * 2];
+        mask = (int) entries - 1;
+    }
+
+    /**
+     * Starts a new search, so entries from earlier searches are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 63;
+    }
+
+    /**
+     * @return the entry data stored for the key, or 0 if there is none
+     */
+    public long probe(long key) {
+        probes.increment();
+        int index = index(key);
+        long data = (long) SLOTS.getOpaque(slots, index + 1);
+        long check = (long) SLOTS.getOpaque(slots, index);
+        if (data == 0 || (check ^ data) != key) {
+            return 0L;
+        }
+        hits.increment();
+        return data;
+    }
+
+    /**
+     * @param move  the best move found, as a {@link chess.PackedMove}, or 0
+     * @param score the score, with mate scores made relative to this position
+     * @param bound {@link #UPPER_BOUND}, {@link #LOWER_BOUND} or {@link #EXACT}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = index(key);
+        long oldData = (long) SLOTS.getOpaque(slots, index + 1);
+        long oldKey = (long) SLOTS.getOpaque(slots, index) ^ oldData;
+        if (oldData != 0 && oldKey != key && generation(oldData) == generation && depth(oldData) > depth) {
+            return;
+        }
+        if (move == 0 && oldKey == key) {
+            // keep the move from an earlier search of this position for ordering
+            move = move(oldData);
+        }
+
+        long data = (move & 0xFFFFFL)
+                | (score & 0xFFFFL) << SCORE_SHIFT
+                | (long) Math.min(depth, 255) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) generation << GENERATION_SHIFT;
+        SLOTS.setOpaque(slots, index, key ^ data);
+        SLOTS.setOpaque(slots, index + 1, data);
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & 3);
+    }
+
+    private static int generation(long entry) {
+        return (int) ((entry >>> GENERATION_SHIFT) & 63);
+    }
+
+    private int index(long key) {
+        return ((int) key & mask) << 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Empties the table and resets the statistics. Not safe while a search is
+     * using the table.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0L);
+        probes.reset();
+        hits.reset();
+        generation = 0;
+    }
+
+    /**
+     * @return the fraction of probes that found their position, 0 to 1
+     */
+    public double hitRate() {
+        long probeCount = probes.sum();
+        return probeCount == 0 ? 0.0 : (double) hits.sum() / probeCount;
+    }
+
+    /**
+     * Estimated from the first {@value #FILL_SAMPLE} slots, as UCI engines do
+     *
+     * @return the percentage of slots holding an entry from the current search
+     */
+    public double fillPercentage() {
+        int sample = Math.min(FILL_SAMPLE, capacity());
+        int used = 0;
+        for (int entry = 0; entry < sample; entry++) {
+            long data = (long) SLOTS.getOpaque(slots, entry * 2 + 1);
+            if (data != 0 && generation(data) == generation) {
+                used++;
+            }
+        }
+        return 100.0 * used / sample;
+    }
+}
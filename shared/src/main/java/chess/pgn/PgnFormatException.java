@@ -0,0 +1,22 @@
+package chess.pgn;
+
+/**
+ * Indicates a game in a PGN file could not be read. The reader has already
+ * skipped past the rest of that game, so reading can carry on with the next one.
+ */
+public class PgnFormatException extends IllegalArgumentException {
+
+    private final long line;
+
+    public PgnFormatException(String message, long line) {
+        super("Line " + line + ": " + message);
+        this.line = line;
+    }
+
+    /**
+     * @return the line of the file the problem was found on, counting from 1
+     */
+    public long getLine() {
+        return line;
+    }
+}
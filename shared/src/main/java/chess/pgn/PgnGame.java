@@ -0,0 +1,67 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game from a PGN file: its tag pairs, in file order, the moves of the main
+ * line and the result.
+ *
+ * @param tags   tag names to values, such as "White" to the white player's name
+ * @param moves  the moves played, starting from {@link #startingPosition()}
+ * @param result "1-0", "0-1", "1/2-1/2", or "*" for a game still in progress
+ */
+public record PgnGame(Map<String, String> tags, List<ChessMove> moves, String result) {
+
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNFINISHED = "*";
+
+    public PgnGame {
+        tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        moves = List.copyOf(moves);
+        if (result == null || !isResult(result)) {
+            throw new IllegalArgumentException("Not a PGN result: " + result);
+        }
+    }
+
+    static boolean isResult(CharSequence token) {
+        return WHITE_WINS.contentEquals(token) || BLACK_WINS.contentEquals(token) || DRAW.contentEquals(token)
+                || UNFINISHED.contentEquals(token);
+    }
+
+    /**
+     * @return the value of a tag, or null if the game doesn't have it
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * @return the position the moves start from: the "FEN" tag if there is one,
+     * otherwise the standard starting position
+     */
+    public ChessGame startingPosition() {
+        String fen = tags.get("FEN");
+        return fen == null ? new ChessGame() : ChessGame.fromFen(fen);
+    }
+
+    /**
+     * @return the position after all the moves
+     * @throws InvalidMoveException if a move is not legal where it is played
+     */
+    public ChessGame replay() throws InvalidMoveException {
+        ChessGame game = startingPosition();
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+        }
+        return game;
+    }
+}
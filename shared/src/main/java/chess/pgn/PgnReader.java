@@ -0,0 +1,406 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Reads games one at a time from a PGN file of any size.
+ * <p>
+ * The channel is read through a fixed buffer and each game is parsed as soon as
+ * its bytes arrive, so memory use doesn't depend on the size of the file. Tag
+ * values are decoded as UTF-8. Comments, variations, numeric annotation glyphs
+ * and escape lines are skipped; each main line move is matched against the
+ * legal moves with {@link San} and played with {@link ChessGame#makeMove(int)},
+ * so every game that is returned is legal.
+ * <p>
+ * A game that can't be read makes {@link #next()} throw a
+ * {@link PgnFormatException} after skipping to the end of that game, so an
+ * import can log it and carry on.
+ */
+public final class PgnReader implements Iterator<PgnGame>, AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // some files write en passant captures as "exd6 e.p."
+    private static final String EN_PASSANT = "e.p.";
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder token = new StringBuilder(16);
+    private final MoveList moves = new MoveList();
+    private byte[] tagBytes = new byte[64];
+    private long line = 1;
+    private boolean atLineStart = true;
+    private boolean endOfInput;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    /**
+     * Reads every game in the channel and closes it
+     *
+     * @param action called with each game in file order
+     * @return how many games were read
+     * @throws PgnFormatException for the first game that can't be read
+     */
+    public static long forEach(ReadableByteChannel channel, Consumer<PgnGame> action) throws IOException {
+        long count = 0;
+        try (PgnReader reader = new PgnReader(channel)) {
+            while (reader.hasNext()) {
+                action.accept(reader.next());
+                count++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+
+    /**
+     * @return the line the reader has reached, counting from 1
+     */
+    public long getLineNumber() {
+        return line;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            skipBetweenGames();
+            return peek() >= 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public PgnGame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return readGame();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private PgnGame readGame() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<ChessMove> played = new ArrayList<>();
+        long startLine = line;
+        boolean inMovetext = false;
+        try {
+            readTags(tags);
+            String fen = tags.get("FEN");
+            inMovetext = true;
+            ChessGame game = fen == null ? new ChessGame() : ChessGame.fromFen(fen);
+            String result = readMovetext(game, played);
+            if (result == null) {
+                result = tags.getOrDefault("Result", PgnGame.UNFINISHED);
+            }
+            return new PgnGame(tags, played, PgnGame.isResult(result) ? result : PgnGame.UNFINISHED);
+        } catch (IllegalArgumentException e) {
+            long errorLine = line;
+            skipRestOfGame(inMovetext);
+            String game = tags.isEmpty() ? "game" : "game from line " + startLine;
+            throw new PgnFormatException(game + ": " + e.getMessage(), errorLine);
+        }
+    }
+
+    private void readTags(Map<String, String> tags) throws IOException {
+        while (true) {
+            skipBetweenGames();
+            if (peek() != '[') {
+                return;
+            }
+            read();
+            skipSpaces();
+            token.setLength(0);
+            int c;
+            while ((c = peek()) >= 0 && c != '"' && c != ']' && !isWhitespace(c)) {
+                token.append((char) read());
+            }
+            String name = token.toString();
+            skipSpaces();
+            if (read() != '"') {
+                throw new IllegalArgumentException("Tag " + name + " has no quoted value");
+            }
+            tags.put(name, readTagValue());
+            skipSpaces();
+            if (read() != ']') {
+                throw new IllegalArgumentException("Tag " + name + " is not closed with ']'");
+            }
+        }
+    }
+
+    private String readTagValue() throws IOException {
+        int length = 0;
+        while (true) {
+            int c = read();
+            if (c < 0 || c == '\n') {
+                throw new IllegalArgumentException("Tag value is not closed with '\"'");
+            }
+            if (c == '"') {
+                return new String(tagBytes, 0, length, StandardCharsets.UTF_8);
+            }
+            if (c == '\\') {
+                c = read();
+            }
+            if (length == tagBytes.length) {
+                tagBytes = Arrays.copyOf(tagBytes, length * 2);
+            }
+            tagBytes[length++] = (byte) c;
+        }
+    }
+
+    /**
+     * Plays the main line moves until a result, the next game's tags or the end
+     * of the input
+     *
+     * @return the result token, or null if the movetext had none
+     */
+    private String readMovetext(ChessGame game, List<ChessMove> played) throws IOException {
+        while (true) {
+            skipWhitespace();
+            int c = peek();
+            if (c < 0 || (c == '[' && atLineStart)) {
+                return null;
+            }
+            switch (c) {
+                case '{' -> skipComment();
+                case ';' -> skipLine();
+                case '(' -> skipVariation();
+                case '%' -> {
+                    if (!atLineStart) {
+                        throw new IllegalArgumentException("Unexpected '%'");
+                    }
+                    skipLine();
+                }
+                case '$' -> {
+                    read();
+                    readSymbol();
+                }
+                default -> {
+                    readSymbol();
+                    if (token.isEmpty()) {
+                        throw new IllegalArgumentException("Unexpected '" + (char) read() + "'");
+                    }
+                    if (PgnGame.isResult(token)) {
+                        return token.toString();
+                    }
+                    int san = skipMoveNumber();
+                    if (san < token.length() && !isAnnotation(san) && !EN_PASSANT.contentEquals(token)) {
+                        int move = San.parse(game, san == 0 ? token : token.subSequence(san, token.length()), moves);
+                        played.add(PackedMove.toChessMove(move));
+                        game.makeMove(move);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return where the move starts in the token, after any "12." or "12..."
+     */
+    private int skipMoveNumber() {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == token.length()) {
+            return i;
+        }
+        if (i == 0 || token.charAt(i) != '.') {
+            return 0;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean isAnnotation(int start) {
+        for (int i = start; i < token.length(); i++) {
+            if (token.charAt(i) != '!' && token.charAt(i) != '?') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the run of non-whitespace, non-delimiter characters into {@link #token}
+     */
+    private void readSymbol() throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = peek()) >= 0 && !isWhitespace(c) && "{}();[]$\"".indexOf(c) < 0) {
+            token.append((char) read());
+        }
+    }
+
+    /**
+     * Skips to the result that ends the current game, or to the next game's tags
+     *
+     * @param inMovetext False if the game's own tags may not all be read yet
+     */
+    private void skipRestOfGame(boolean inMovetext) throws IOException {
+        if (!inMovetext) {
+            skipLine();
+            skipBetweenGames();
+            while (peek() == '[') {
+                skipLine();
+                skipBetweenGames();
+            }
+        }
+        while (true) {
+            skipWhitespace();
+            int c = peek();
+            if (c < 0 || (c == '[' && atLineStart)) {
+                return;
+            }
+            switch (c) {
+                case '{' -> skipComment();
+                case ';', '%' -> skipLine();
+                default -> {
+                    readSymbol();
+                    if (token.isEmpty()) {
+                        read();
+                    } else if (PgnGame.isResult(token)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void skipBetweenGames() throws IOException {
+        while (true) {
+            skipWhitespace();
+            int c = peek();
+            if (c == '%' && atLineStart) {
+                skipLine();
+            } else if (c == ';') {
+                skipLine();
+            } else if (c == '{') {
+                skipComment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipComment() throws IOException {
+        read();
+        int c;
+        while ((c = read()) != '}') {
+            if (c < 0) {
+                throw new IllegalArgumentException("Comment is not closed with '}'");
+            }
+        }
+    }
+
+    private void skipVariation() throws IOException {
+        read();
+        int depth = 1;
+        while (depth > 0) {
+            int c = peek();
+            if (c < 0) {
+                throw new IllegalArgumentException("Variation is not closed with ')'");
+            }
+            if (c == '{') {
+                skipComment();
+            } else if (c == ';') {
+                skipLine();
+            } else {
+                read();
+                depth += c == '(' ? 1 : c == ')' ? -1 : 0;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && c != '\n') {
+            read();
+        }
+    }
+
+    private void skipSpaces() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t') {
+            read();
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (isWhitespace(peek())) {
+            read();
+        }
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        int c = buffer.get() & 0xFF;
+        if (c == '\n') {
+            line++;
+            atLineStart = true;
+        } else if (c != '\r') {
+            atLineStart = false;
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+}
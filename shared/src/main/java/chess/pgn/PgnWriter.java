@@ -0,0 +1,167 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes games in PGN export format, which {@link PgnReader} and other PGN
+ * tools can read back.
+ * <p>
+ * Each game starts with the Seven Tag Roster (Event, Site, Date, Round, White,
+ * Black, Result), filled with "?" where a tag is missing, followed by the
+ * game's other tags in order. Moves are written in SAN with move numbers, and
+ * lines are wrapped before 80 characters. Output is collected in a fixed buffer
+ * and written to the channel as it fills, so any number of games can be
+ * streamed out.
+ */
+public final class PgnWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE = 79;
+    private static final List<String> SEVEN_TAG_ROSTER = List.of("Event", "Site", "Date", "Round", "White",
+            "Black", "Result");
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder text = new StringBuilder(1024);
+    private final StringBuilder san = new StringBuilder(16);
+    private final MoveList moves = new MoveList();
+
+    public PgnWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a move is not legal where it is played
+     */
+    public void write(PgnGame game) throws IOException {
+        text.setLength(0);
+        appendTags(game);
+        text.append('\n');
+        appendMovetext(game);
+        text.append("\n\n");
+        writeText();
+    }
+
+    private void appendTags(PgnGame game) {
+        Map<String, String> tags = game.tags();
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = switch (name) {
+                case "Result" -> game.result();
+                case "Date" -> tags.getOrDefault(name, "????.??.??");
+                default -> tags.getOrDefault(name, "?");
+            };
+            appendTag(name, value);
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!SEVEN_TAG_ROSTER.contains(tag.getKey())) {
+                appendTag(tag.getKey(), tag.getValue());
+            }
+        }
+    }
+
+    private void appendTag(String name, String value) {
+        text.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\');
+            }
+            text.append(c);
+        }
+        text.append("\"]\n");
+    }
+
+    private void appendMovetext(PgnGame game) {
+        ChessGame position = game.startingPosition();
+        int lineStart = text.length();
+        boolean first = true;
+        for (ChessMove move : game.moves()) {
+            int packed = legalMove(position, move);
+            san.setLength(0);
+            if (position.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+                san.append(position.getFullmoveNumber()).append(". ");
+            } else if (first) {
+                san.append(position.getFullmoveNumber()).append("... ");
+            }
+            San.append(position, packed, moves, san);
+            lineStart = appendWord(lineStart);
+            position.makeMove(packed);
+            first = false;
+        }
+        san.setLength(0);
+        san.append(game.result());
+        appendWord(lineStart);
+    }
+
+    /**
+     * Adds {@link #san} to the movetext, starting a new line if it would not fit
+     *
+     * @return where the current line now starts
+     */
+    private int appendWord(int lineStart) {
+        if (text.length() > lineStart) {
+            if (text.length() - lineStart + 1 + san.length() > MAX_LINE) {
+                text.append('\n');
+                lineStart = text.length();
+            } else {
+                text.append(' ');
+            }
+        }
+        text.append(san);
+        return lineStart;
+    }
+
+    private int legalMove(ChessGame position, ChessMove move) {
+        moves.clear();
+        position.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.matches(moves.get(i), move)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException(move + " is not legal in " + position.toFen());
+    }
+
+    private void writeText() throws IOException {
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        while (offset < bytes.length) {
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes out everything buffered so far
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Flushes and closes the channel
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
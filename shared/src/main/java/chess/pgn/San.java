@@ -0,0 +1,229 @@
+package chess.pgn;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Standard Algebraic Notation, the move format of PGN: the piece letter (none
+ * for pawns), just enough of the start square to tell apart pieces of the same
+ * type that could make the move, 'x' for captures, the end square, "=Q" for
+ * promotions and '+' or '#' for check or mate. Castling is "O-O" or "O-O-O".
+ * <p>
+ * Moves are matched against and written from the legal moves of the position,
+ * as {@link PackedMove} ints, so reading and writing need no allocation beyond
+ * the caller's {@link MoveList}.
+ */
+public final class San {
+
+    private static final String PIECE_LETTERS = "KQBNRP";
+
+    private San() {
+    }
+
+    /**
+     * Finds the legal move a SAN token means. Check, mate and annotation marks
+     * ("+", "#", "!", "?") are ignored, as are the "e.p." suffix, a missing '='
+     * before the promotion piece and castling written with zeros.
+     *
+     * @param moves a buffer for the legal moves; its contents are replaced
+     * @return the move as a {@link PackedMove}
+     * @throws IllegalArgumentException if the token is not SAN, or matches no
+     *                                  legal move or more than one
+     */
+    public static int parse(ChessGame game, CharSequence san, MoveList moves) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end >= 4 && san.charAt(end - 1) == '.' && san.charAt(end - 4) == 'e') {
+            end -= 4; // "e.p."
+        }
+        moves.clear();
+        game.legalMoves(moves);
+
+        if (isCastling(san, end)) {
+            int kingColumn = end >= 5 ? 3 : 7;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (PackedMove.hasFlag(move, PackedMove.CASTLING) && PackedMove.to(move) % 8 == kingColumn - 1) {
+                    return move;
+                }
+            }
+            throw new IllegalArgumentException("Castling '" + san + "' is not legal here");
+        }
+
+        int start = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (end > 0 && PIECE_LETTERS.indexOf(san.charAt(0)) >= 0 && san.charAt(0) != 'P') {
+            type = ChessPiece.PieceType.values()[PIECE_LETTERS.indexOf(san.charAt(0))];
+            start = 1;
+        } else if (end > 0 && san.charAt(0) == 'P') {
+            start = 1;
+        }
+
+        ChessPiece.PieceType promotion = null;
+        if (end - start >= 3 && PIECE_LETTERS.indexOf(san.charAt(end - 1)) >= 0) {
+            int letter = PIECE_LETTERS.indexOf(san.charAt(end - 1));
+            promotion = ChessPiece.PieceType.values()[letter];
+            end -= san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+
+        if (end - start < 2 || !isFile(san.charAt(end - 2)) || !isRank(san.charAt(end - 1))) {
+            throw new IllegalArgumentException("'" + san + "' is not a SAN move");
+        }
+        int to = (san.charAt(end - 1) - '1') * 8 + (san.charAt(end - 2) - 'a');
+        end -= 2;
+        if (end > start && san.charAt(end - 1) == 'x') {
+            end--;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end; i++) {
+            char c = san.charAt(i);
+            if (isFile(c)) {
+                fromFile = c - 'a';
+            } else if (isRank(c)) {
+                fromRank = c - '1';
+            } else {
+                throw new IllegalArgumentException("'" + san + "' is not a SAN move");
+            }
+        }
+
+        ChessBoard board = game.getBoard();
+        int found = 0;
+        int matches = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || PackedMove.promotion(move) != promotion
+                    || PackedMove.hasFlag(move, PackedMove.CASTLING)
+                    || (fromFile >= 0 && from % 8 != fromFile) || (fromRank >= 0 && from / 8 != fromRank)
+                    || board.getPiece(from).getPieceType() != type) {
+                continue;
+            }
+            found = move;
+            matches++;
+        }
+        if (matches == 0) {
+            throw new IllegalArgumentException("'" + san + "' is not legal here");
+        }
+        if (matches > 1) {
+            throw new IllegalArgumentException("'" + san + "' could be more than one move");
+        }
+        return found;
+    }
+
+    /**
+     * Writes a legal move in SAN, with '+' or '#' when it gives check or mate
+     *
+     * @param moves a buffer for the legal moves; its contents are replaced
+     */
+    public static void append(ChessGame game, int move, MoveList moves, StringBuilder out) {
+        ChessBoard board = game.getBoard();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece.PieceType type = board.getPiece(from).getPieceType();
+
+        if (PackedMove.hasFlag(move, PackedMove.CASTLING)) {
+            out.append(to % 8 == 6 ? "O-O" : "O-O-O");
+        } else {
+            if (type == ChessPiece.PieceType.PAWN) {
+                if (PackedMove.isCapture(move)) {
+                    out.append(file(from));
+                }
+            } else {
+                out.append(PIECE_LETTERS.charAt(type.ordinal()));
+                appendDisambiguation(game, move, type, moves, out);
+            }
+            if (PackedMove.isCapture(move)) {
+                out.append('x');
+            }
+            out.append(file(to)).append(rank(to));
+            ChessPiece.PieceType promotion = PackedMove.promotion(move);
+            if (promotion != null) {
+                out.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+            }
+        }
+
+        game.makeMove(move);
+        if (game.isInCheck(game.getTeamTurn())) {
+            moves.clear();
+            game.legalMoves(moves);
+            out.append(moves.isEmpty() ? '#' : '+');
+        }
+        game.unmakeMove();
+    }
+
+    /**
+     * @return the move in SAN, see {@link #append(ChessGame, int, MoveList, StringBuilder)}
+     */
+    public static String toSan(ChessGame game, int move) {
+        StringBuilder out = new StringBuilder(8);
+        append(game, move, new MoveList(), out);
+        return out.toString();
+    }
+
+    private static void appendDisambiguation(ChessGame game, int move, ChessPiece.PieceType type, MoveList moves,
+                                             StringBuilder out) {
+        ChessBoard board = game.getBoard();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        moves.clear();
+        game.legalMoves(moves);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < moves.size(); i++) {
+            int other = moves.get(i);
+            int otherFrom = PackedMove.from(other);
+            if (otherFrom == from || PackedMove.to(other) != to
+                    || board.getPiece(otherFrom).getPieceType() != type) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= otherFrom % 8 == from % 8;
+            sameRank |= otherFrom / 8 == from / 8;
+        }
+        if (ambiguous) {
+            if (!sameFile) {
+                out.append(file(from));
+            } else if (!sameRank) {
+                out.append(rank(from));
+            } else {
+                out.append(file(from)).append(rank(from));
+            }
+        }
+    }
+
+    private static boolean isCastling(CharSequence san, int end) {
+        if (end != 3 && end != 5) {
+            return false;
+        }
+        for (int i = 0; i < end; i++) {
+            char c = san.charAt(i);
+            if (i % 2 == 1 ? c != '-' : c != 'O' && c != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + square % 8);
+    }
+
+    private static char rank(int square) {
+        return (char) ('1' + square / 8);
+    }
+}
@@ -0,0 +1,93 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BoardJsonTests {
+
+    private static final Gson GSON = new Gson();
+
+    @Test
+    @DisplayName("Round Trips Through Gson")
+    public void roundTrip() {
+        ChessGame game = ChessGame.fromFen(Perft.ReferencePosition.KIWIPETE.fen());
+        ChessBoard board = GSON.fromJson(GSON.toJson(game.getBoard()), ChessBoard.class);
+        Assertions.assertEquals(game.getBoard(), board);
+        Assertions.assertEquals(game.getBoard().getZobristKey(), board.getZobristKey());
+        Assertions.assertEquals(game.getBoard().getEvaluation(), board.getEvaluation());
+        Assertions.assertEquals(game.getBoard().countPieces(), board.countPieces());
+    }
+
+    @Test
+    @DisplayName("Writes Only The Pieces")
+    public void writesOnlyPieces() {
+        JsonObject json = GSON.toJsonTree(new ChessGame().getBoard()).getAsJsonObject();
+        Assertions.assertEquals(1, json.size(), json.toString());
+        Assertions.assertTrue(json.has("pieces"));
+    }
+
+    @Test
+    @DisplayName("Ignores Stored Key And Score")
+    public void ignoresDerivedFields() {
+        ChessBoard start = new ChessGame().getBoard();
+        JsonObject json = GSON.toJsonTree(start).getAsJsonObject();
+        json.addProperty("zobristKey", 12345L);
+        json.addProperty("middlegameScore", 900);
+        json.addProperty("occupied", -1L);
+
+        ChessBoard board = GSON.fromJson(json, ChessBoard.class);
+        Assertions.assertEquals(start.getZobristKey(), board.getZobristKey());
+        Assertions.assertEquals(start.recomputeEvaluation(), board.getEvaluation());
+        Assertions.assertEquals(32, board.countPieces());
+    }
+
+    @Test
+    @DisplayName("Reads The Older Squares Form")
+    public void readsSquares() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        String json = GSON.toJson(new LegacyGame(game));
+
+        ChessGame read = GSON.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game.getBoard(), read.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, read.getTeamTurn());
+        Assertions.assertEquals(game.getBoard().getZobristKey(), read.getBoard().getZobristKey());
+        Assertions.assertEquals(game.getBoard().getEvaluation(), read.getBoard().getEvaluation());
+    }
+
+    @Test
+    @DisplayName("Rejects A Short Squares Array")
+    public void rejectsShortSquares() {
+        Assertions.assertThrows(JsonParseException.class,
+                () -> GSON.fromJson("{\"squares\":[[null]]}", ChessBoard.class));
+    }
+
+    /**
+     * A game as Gson wrote it when the board was an 8x8 array of pieces
+     */
+    private static final class LegacyGame {
+        final ChessGame.TeamColor teamTurn;
+        final LegacyBoard board;
+
+        LegacyGame(ChessGame game) {
+            teamTurn = game.getTeamTurn();
+            board = new LegacyBoard(game.getBoard());
+        }
+    }
+
+    private static final class LegacyBoard {
+        final ChessPiece[][] squares = new ChessPiece[8][8];
+
+        LegacyBoard(ChessBoard board) {
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    squares[row - 1][col - 1] = board.getPiece(new ChessPosition(row, col));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Starting Position Is Level")
+    public void startingPositionLevel() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertEquals(0, board.getEvaluation());
+        Assertions.assertEquals(0, board.recomputeEvaluation());
+    }
+
+    @Test
+    @DisplayName("Mirrored Position Scores Opposite")
+    public void mirroredPosition() {
+        ChessBoard board = Perft.loadPosition("4k3/8/8/8/3N4/8/1P6/4K3 w - - 0 1").getBoard();
+        ChessBoard mirrored = Perft.loadPosition("4k3/1p6/8/3n4/8/8/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertTrue(board.getEvaluation() > 300, "An extra knight and pawn should show");
+        Assertions.assertEquals(-board.getEvaluation(), mirrored.getEvaluation());
+    }
+
+    @Test
+    @DisplayName("Endgame Favours Central King")
+    public void endgameKing() {
+        ChessBoard central = Perft.loadPosition("4k3/8/8/8/3K4/8/8/8 w - - 0 1").getBoard();
+        ChessBoard corner = Perft.loadPosition("4k3/8/8/8/8/8/8/K7 w - - 0 1").getBoard();
+        Assertions.assertTrue(central.getEvaluation() > corner.getEvaluation());
+    }
+
+    @Test
+    @DisplayName("Incremental Score Matches Recompute")
+    public void incrementalMatchesRecompute() {
+        for (Perft.ReferencePosition position : Perft.ReferencePosition.values()) {
+            ChessGame game = Perft.loadPosition(position.fen());
+            walk(game, 3);
+            Assertions.assertEquals(game.getBoard().recomputeEvaluation(), game.getBoard().getEvaluation());
+        }
+    }
+
+    private static void walk(ChessGame game, int depth) {
+        Assertions.assertEquals(game.getBoard().recomputeEvaluation(), game.getBoard().getEvaluation(),
+                "Incremental score drifted");
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            walk(game, depth - 1);
+            game.unmakeMove();
+        }
+    }
+}
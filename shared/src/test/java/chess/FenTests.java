@@ -0,0 +1,99 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+
+    private static final String STARTING = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        Assertions.assertEquals(STARTING, new ChessGame().toFen());
+        Assertions.assertEquals(new ChessGame(), ChessGame.fromFen(STARTING));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", new ChessGame().getBoard().toFen());
+    }
+
+    @Test
+    @DisplayName("Round Trips Reference Positions")
+    public void roundTrips() {
+        for (Perft.ReferencePosition position : Perft.ReferencePosition.values()) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            Assertions.assertEquals(position.fen(), game.toFen(), position.name());
+            Assertions.assertEquals(game.getZobristKey(), ChessGame.fromFen(game.toFen()).getZobristKey());
+        }
+    }
+
+    @Test
+    @DisplayName("Reads Rule State")
+    public void readsRuleState() {
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w Kq f6 0 3");
+        Assertions.assertEquals(ChessGame.WHITE_KINGSIDE | ChessGame.BLACK_QUEENSIDE, game.getCastlingRights());
+        Assertions.assertEquals(6, game.getEnPassantColumn());
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(3, game.getFullmoveNumber());
+        Assertions.assertTrue(game.legalMoves().contains(
+                new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 6), null)), "exf6 en passant");
+
+        ChessGame black = ChessGame.fromFen("8/8/8/8/4Pp2/8/8/4K2k b - e3 12 40");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, black.getTeamTurn());
+        Assertions.assertEquals(5, black.getEnPassantColumn());
+        Assertions.assertEquals(12, black.getHalfmoveClock());
+        Assertions.assertEquals(40, black.getFullmoveNumber());
+    }
+
+    @Test
+    @DisplayName("Follows Moves")
+    public void followsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Optional Fields And Impossible Castling")
+    public void optionalFields() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3");
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 w - - 0 1", game.toFen());
+
+        ChessGame noRooks = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 b KQkq - 0 1");
+        Assertions.assertEquals(0, noRooks.getCastlingRights(), "Rights without rooks can't be used");
+    }
+
+    @Test
+    @DisplayName("Rejects Malformed FEN")
+    public void rejectsMalformed() {
+        String[] malformed = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KX",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e3",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - -1 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+        };
+        for (String fen : malformed) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Matches The Gson Form")
+    public void matchesGson() {
+        Gson gson = new Gson();
+        ChessGame game = ChessGame.fromFen(Perft.ReferencePosition.KIWIPETE.fen());
+        ChessGame fromJson = gson.fromJson(gson.toJson(game), ChessGame.class);
+        Assertions.assertEquals(game.toFen(), fromJson.toFen());
+        Assertions.assertTrue(game.toFen().length() < gson.toJson(game).length() / 3);
+    }
+}
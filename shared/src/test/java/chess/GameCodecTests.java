@@ -0,0 +1,76 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        Assertions.assertEquals(29, bytes.length);
+        Assertions.assertEquals(GameCodec.VERSION, bytes[0]);
+        Assertions.assertEquals(new ChessGame(), GameCodec.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Round Trips Reference Positions")
+    public void roundTrips() {
+        for (Perft.ReferencePosition position : Perft.ReferencePosition.values()) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+            Assertions.assertEquals(position.fen(), decoded.toFen(), position.name());
+            Assertions.assertEquals(game.getZobristKey(), decoded.getZobristKey(), position.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Keeps Rule State And Large Counters")
+    public void ruleState() {
+        String fen = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w Kq f6 99 1000";
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(ChessGame.fromFen(fen)));
+        Assertions.assertEquals(fen, decoded.toFen());
+        Assertions.assertTrue(decoded.legalMoves().contains(
+                new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 6), null)), "exf6 en passant");
+    }
+
+    @Test
+    @DisplayName("Much Smaller Than Gson")
+    public void smallerThanJson() {
+        ChessGame game = new ChessGame();
+        int json = new Gson().toJson(game).getBytes(StandardCharsets.UTF_8).length;
+        Assertions.assertTrue(GameCodec.encode(game).length * 5 < json, "JSON is " + json + " bytes");
+    }
+
+    @Test
+    @DisplayName("Rejects Damaged Input")
+    public void rejectsDamagedInput() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[0]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GameCodec.decode("{\"teamTurn\":\"WHITE\"}".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GameCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GameCodec.decode(Arrays.copyOf(bytes, bytes.length + 1)));
+
+        byte[] unknownPiece = bytes.clone();
+        unknownPiece[11] = (byte) 0xFF;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(unknownPiece));
+    }
+
+    @Test
+    @DisplayName("Drops Castling Rights The Pieces Don't Allow")
+    public void masksCastlingRights() {
+        byte[] bytes = GameCodec.encode(ChessGame.fromFen("4k2r/8/8/8/8/8/8/R3K3 w - - 0 1"));
+        bytes[1] |= (byte) (ChessGame.ALL_CASTLING << 1);
+        Assertions.assertEquals(ChessGame.WHITE_QUEENSIDE | ChessGame.BLACK_KINGSIDE,
+                GameCodec.decode(bytes).getCastlingRights());
+    }
+}
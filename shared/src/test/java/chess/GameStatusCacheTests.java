@@ -0,0 +1,43 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GameStatusCacheTests {
+
+    @Test
+    @DisplayName("Status Follows Moves")
+    public void statusFollowsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(new ChessGame.GameStatus(ChessGame.TeamColor.WHITE, false, false, false),
+                game.getGameStatus());
+
+        // fool's mate
+        game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+
+        ChessGame.GameStatus status = game.getGameStatus();
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, status.sideToMove());
+        Assertions.assertTrue(status.inCheck());
+        Assertions.assertTrue(status.checkmate());
+        Assertions.assertFalse(status.stalemate());
+        Assertions.assertTrue(status.isGameOver());
+        Assertions.assertSame(status, game.getGameStatus(), "Status should be reused for the same position");
+    }
+
+    @Test
+    @DisplayName("Status Recomputed After Board Edit")
+    public void statusRecomputedAfterBoardEdit() {
+        ChessGame game = Perft.loadPosition("7k/8/6K1/8/8/8/8/5Q2 b - - 0 1");
+        Assertions.assertFalse(game.getGameStatus().isGameOver());
+
+        game.getBoard().addPiece(new ChessPosition(1, 6), null);
+        game.getBoard().addPiece(new ChessPosition(7, 6), new ChessPiece(ChessGame.TeamColor.WHITE,
+                ChessPiece.PieceType.QUEEN));
+        Assertions.assertTrue(game.getGameStatus().stalemate(), "Status was not recomputed after the board changed");
+        Assertions.assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,56 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParallelPerftTests {
+
+    @Test
+    @DisplayName("Root Split Matches Reference")
+    public void rootSplit() {
+        try (ParallelPerft perft = new ParallelPerft(4, 1, null)) {
+            assertReference(perft, Perft.ReferencePosition.KIWIPETE, 3);
+            assertReference(perft, Perft.ReferencePosition.STARTING, 4);
+        }
+    }
+
+    @Test
+    @DisplayName("Second Ply Split Matches Reference")
+    public void secondPlySplit() {
+        try (ParallelPerft perft = new ParallelPerft(4, 2, null)) {
+            assertReference(perft, Perft.ReferencePosition.BUGGY_CASTLING, 3);
+            assertReference(perft, Perft.ReferencePosition.ROOK_ENDGAME, 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Shared Hash Table Matches Reference")
+    public void sharedHashTable() {
+        PerftTable table = new PerftTable(4);
+        try (ParallelPerft perft = new ParallelPerft(4, 2, table)) {
+            assertReference(perft, Perft.ReferencePosition.ROOK_ENDGAME, 5);
+            // the second run is served mostly from the table and must still agree
+            assertReference(perft, Perft.ReferencePosition.ROOK_ENDGAME, 5);
+            assertReference(perft, Perft.ReferencePosition.PROMOTIONS, 4);
+        }
+    }
+
+    @Test
+    @DisplayName("Game Untouched")
+    public void gameUntouched() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+        ChessGame before = game.copy();
+        try (ParallelPerft perft = new ParallelPerft(2, 2, null)) {
+            ParallelPerft.Result result = perft.count(game, 2);
+            Assertions.assertEquals(2, result.threads());
+        }
+        Assertions.assertEquals(before, game);
+    }
+
+    private static void assertReference(ParallelPerft perft, Perft.ReferencePosition position, int depth) {
+        ParallelPerft.Result result = perft.count(Perft.loadPosition(position.fen()), depth);
+        Assertions.assertEquals(position.expectedNodes(depth), result.nodes(),
+                "Wrong parallel perft(" + depth + ") for " + position);
+    }
+}
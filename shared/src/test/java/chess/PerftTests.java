@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        assertNodeCounts(Perft.ReferencePosition.STARTING, 4);
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    public void kiwipete() {
+        assertNodeCounts(Perft.ReferencePosition.KIWIPETE, 3);
+    }
+
+    @Test
+    @DisplayName("Rook Endgame")
+    public void rookEndgame() {
+        assertNodeCounts(Perft.ReferencePosition.ROOK_ENDGAME, 4);
+    }
+
+    @Test
+    @DisplayName("Promotions")
+    public void promotions() {
+        assertNodeCounts(Perft.ReferencePosition.PROMOTIONS, 3);
+    }
+
+    @Test
+    @DisplayName("Castling Through Check")
+    public void buggyCastling() {
+        assertNodeCounts(Perft.ReferencePosition.BUGGY_CASTLING, 3);
+    }
+
+    @Test
+    @DisplayName("Middlegame")
+    public void middlegame() {
+        assertNodeCounts(Perft.ReferencePosition.MIDDLEGAME, 3);
+    }
+
+    @Test
+    @DisplayName("Divide Adds Up To Total")
+    public void divideMatchesCount() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.STARTING.fen());
+        Perft perft = new Perft(game);
+
+        Map<ChessMove, Long> divide = perft.divide(3);
+        Assertions.assertEquals(20, divide.size(), "Divide should list every root move");
+        Assertions.assertEquals(perft.count(3), divide.values().stream().mapToLong(Long::longValue).sum(),
+                "Divide counts did not add up to the total");
+    }
+
+    @Test
+    @DisplayName("Board Restored After Count")
+    public void boardRestored() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.PROMOTIONS.fen());
+        ChessBoard before = Perft.loadPosition(Perft.ReferencePosition.PROMOTIONS.fen()).getBoard();
+
+        long key = game.getZobristKey();
+
+        new Perft(game).count(3);
+        Assertions.assertEquals(before, game.getBoard(), "Perft left the board changed");
+        Assertions.assertEquals(key, game.getZobristKey(), "Perft left the castling or en passant state changed");
+    }
+
+    private static void assertNodeCounts(Perft.ReferencePosition position, int maxDepth) {
+        Perft perft = new Perft(Perft.loadPosition(position.fen()));
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Assertions.assertEquals(position.expectedNodes(depth), perft.count(depth),
+                    "Wrong perft(" + depth + ") for " + position);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RuleStateTests {
+
+    @Test
+    @DisplayName("Counters And En Passant Follow Moves")
+    public void countersFollowMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(ChessGame.ALL_CASTLING, game.getCastlingRights());
+        Assertions.assertEquals(1, game.getFullmoveNumber());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(5, game.getEnPassantColumn());
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.getFullmoveNumber());
+
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        Assertions.assertEquals(0, game.getEnPassantColumn());
+        Assertions.assertEquals(1, game.getHalfmoveClock());
+        Assertions.assertEquals(2, game.getFullmoveNumber());
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertEquals(ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, game.getCastlingRights());
+        Assertions.assertEquals(2, game.getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Rule State")
+    public void unmakeRestoresRuleState() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+        ChessGame copy = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            game.unmakeMove();
+            Assertions.assertEquals(copy, game,
+                    "Rule state not restored after " + PackedMove.toChessMove(moves.get(i)));
+            Assertions.assertEquals(copy.getZobristKey(), game.getZobristKey());
+            Assertions.assertEquals(copy.getHalfmoveClock(), game.getHalfmoveClock());
+        }
+    }
+
+    @Test
+    @DisplayName("Transposed Positions Share A Key")
+    public void transpositionsShareKey() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        first.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        first.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        second.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        second.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        // the double push leaves an en passant column that no black pawn can use
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Copy Is Independent")
+    public void copyIsIndependent() throws InvalidMoveException {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+        ChessGame copy = game.copy();
+        Assertions.assertEquals(game, copy);
+        Assertions.assertEquals(game.getZobristKey(), copy.getZobristKey());
+
+        copy.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null));
+        Assertions.assertNotEquals(game, copy);
+        Assertions.assertEquals(ChessGame.ALL_CASTLING, game.getCastlingRights());
+    }
+}
@@ -0,0 +1,63 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Incremental Key Matches Recomputed Key")
+    public void incrementalMatchesRecomputed() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(Zobrist.boardKey(game.getBoard()), game.getBoard().getZobristKey());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        Assertions.assertEquals(Zobrist.boardKey(game.getBoard()), game.getBoard().getZobristKey(),
+                "Incremental key drifted from the recomputed key after a capture");
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Key")
+    public void unmakeRestoresKey() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.PROMOTIONS.fen());
+        ChessBoard board = game.getBoard();
+        long before = board.getZobristKey();
+
+        for (ChessMove move : game.legalMoves()) {
+            board.makeMove(move);
+            Assertions.assertNotEquals(before, board.getZobristKey(), "Key unchanged after " + move);
+            board.unmakeMove();
+            Assertions.assertEquals(before, board.getZobristKey(), "Key not restored after " + move);
+        }
+    }
+
+    @Test
+    @DisplayName("Transposition Has Same Key")
+    public void transpositionSameKey() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long start = game.getZobristKey();
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        Assertions.assertNotEquals(start, game.getZobristKey());
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+
+        Assertions.assertEquals(start, game.getZobristKey(), "Knights returning home should give the starting key");
+        Assertions.assertEquals(new ChessGame().hashCode(), game.hashCode());
+    }
+
+    @Test
+    @DisplayName("Side To Move Changes Key")
+    public void sideToMoveChangesKey() {
+        ChessGame white = new ChessGame();
+        ChessGame black = new ChessGame();
+        black.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        Assertions.assertEquals(white.getBoard().getZobristKey(), black.getBoard().getZobristKey());
+        Assertions.assertNotEquals(white.getZobristKey(), black.getZobristKey());
+    }
+}
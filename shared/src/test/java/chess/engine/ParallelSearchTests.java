@@ -0,0 +1,52 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void findsMateInOne() {
+        ChessGame game = Perft.loadPosition("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        try (ParallelSearch search = new ParallelSearch(4, 4)) {
+            SearchResult result = search.search(game, SearchLimits.depth(4));
+            Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                    result.bestMove());
+            Assertions.assertEquals(1, result.mateIn());
+        }
+    }
+
+    @Test
+    @DisplayName("Game Untouched And Depth Reached")
+    public void gameUntouched() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+        ChessGame before = game.copy();
+        try (ParallelSearch search = new ParallelSearch(3, 4)) {
+            SearchResult result = search.search(game, SearchLimits.depth(4));
+            Assertions.assertEquals(4, result.depth());
+            Assertions.assertNotNull(result.bestMove());
+            Assertions.assertTrue(result.nodes() > 0);
+        }
+        Assertions.assertEquals(before, game, "Parallel search changed the caller's game");
+    }
+
+    @Test
+    @DisplayName("Respects Deadline")
+    public void respectsDeadline() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.MIDDLEGAME.fen());
+        try (ParallelSearch search = new ParallelSearch(4, 4)) {
+            long start = System.nanoTime();
+            SearchResult result = search.search(game, SearchLimits.time(100));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Assertions.assertNotNull(result.bestMove());
+            Assertions.assertTrue(elapsedMillis < 400, "Search ran for " + elapsedMillis + " ms");
+        }
+    }
+}
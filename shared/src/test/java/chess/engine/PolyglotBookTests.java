@@ -0,0 +1,168 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+public class PolyglotBookTests {
+
+    /**
+     * The lines in the bundled books/test-book.bin: moves played to reach the
+     * position, the book move, and its weight
+     */
+    static final String[][] BOOK = {
+            {"", "e2e4", "10"},
+            {"", "d2d4", "6"},
+            {"", "c2c4", "2"},
+            {"", "g1f3", "2"},
+            {"e2e4", "c7c5", "8"},
+            {"e2e4", "e7e5", "6"},
+            {"e2e4", "e7e6", "3"},
+            {"e2e4 e7e5", "g1f3", "10"},
+            {"e2e4 e7e5 g1f3", "b8c6", "10"},
+            {"e2e4 e7e5 g1f3 b8c6", "f1b5", "6"},
+            {"e2e4 e7e5 g1f3 b8c6", "f1c4", "4"},
+            {"e2e4 e7e5 g1f3 b8c6 f1b5 g8f6", "e1g1", "5"},
+            {"d2d4", "d7d5", "5"},
+            {"d2d4", "g8f6", "5"},
+    };
+
+    @Test
+    @DisplayName("Best Move From Start")
+    public void bestMoveFromStart() throws IOException, URISyntaxException {
+        try (PolyglotBook book = PolyglotBook.open(bundledBook())) {
+            Assertions.assertEquals(BOOK.length, book.size());
+            Assertions.assertEquals(Optional.of(move("e2e4")), book.bestMove(new ChessGame()));
+
+            List<PolyglotBook.Entry> entries = book.entries(new ChessGame());
+            Assertions.assertEquals(4, entries.size());
+            Assertions.assertEquals(new PolyglotBook.Entry(move("d2d4"), 6), entries.get(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Follows A Line Through Castling")
+    public void followsLine() throws Exception {
+        try (PolyglotBook book = PolyglotBook.open(bundledBook())) {
+            ChessGame game = play("e2e4 e7e5 g1f3 b8c6 f1b5 g8f6");
+            Assertions.assertEquals(Optional.of(move("e1g1")), book.bestMove(game),
+                    "Castling should come back as the king's two-square move");
+            Assertions.assertTrue(book.bestMove(play("a2a3")).isEmpty(), "Position is not in the book");
+        }
+    }
+
+    @Test
+    @DisplayName("Weighted Choice Follows Weights")
+    public void weightedChoice() throws IOException, URISyntaxException {
+        try (PolyglotBook book = PolyglotBook.open(bundledBook())) {
+            ChessGame game = new ChessGame();
+            Random random = new Random(1);
+            int kingsPawn = 0;
+            for (int i = 0; i < 2000; i++) {
+                ChessMove chosen = book.weightedMove(game, random).orElseThrow();
+                if (chosen.equals(move("e2e4"))) {
+                    kingsPawn++;
+                }
+            }
+            // e4 has 10 of the 20 weight
+            Assertions.assertTrue(kingsPawn > 850 && kingsPawn < 1150, "e2e4 chosen " + kingsPawn + " times");
+        }
+    }
+
+    @Test
+    @DisplayName("Bundled Book Matches Its Source")
+    public void bundledBookMatchesSource() throws Exception {
+        Path rebuilt = Files.createTempFile("book", ".bin");
+        try {
+            writeBook(rebuilt);
+            Assertions.assertArrayEquals(Files.readAllBytes(bundledBook()), Files.readAllBytes(rebuilt));
+        } finally {
+            Files.deleteIfExists(rebuilt);
+        }
+    }
+
+    @Test
+    @DisplayName("Promotion Moves Round Trip")
+    public void promotionRoundTrip() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.PROMOTIONS.fen());
+        ChessMove promotion = new ChessMove(new ChessPosition(2, 2), new ChessPosition(1, 1),
+                ChessPiece.PieceType.KNIGHT);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(promotion, PolyglotBook.decodeMove(game, PolyglotBook.encodeMove(game, promotion)));
+    }
+
+    @Test
+    @DisplayName("Standard Keys Match Polyglot")
+    public void standardKeysMatchPolyglot() throws InvalidMoveException {
+        // test positions from Polyglot's book format description
+        PolyglotKeys keys = PolyglotKeys.standard();
+        Assertions.assertEquals(0x463B96181691FC9CL, keys.key(new ChessGame()));
+        Assertions.assertEquals(0x823C9B50FD114196L, keys.key(play("e2e4")));
+        Assertions.assertEquals(0x0756B94461C50FB0L, keys.key(play("e2e4 d7d5")));
+        Assertions.assertEquals(0x22A48B5A8E47FF78L, keys.key(play("e2e4 d7d5 e4e5 f7f5")),
+                "En passant is possible");
+        Assertions.assertEquals(0x00FDD303C946BDD9L, keys.key(play("e2e4 d7d5 e4e5 f7f5 e1e2 e8f7")),
+                "Castling rights are gone");
+        Assertions.assertEquals(0x5C3F9B829B279560L, keys.key(play("a2a4 b7b5 h2h4 b5b4 c2c4 b4c3 a1a3")));
+    }
+
+    @Test
+    @DisplayName("Key Table Loads From Text")
+    public void keyTableLoads() throws IOException {
+        Path table = Files.createTempFile("random64", ".txt");
+        try {
+            StringBuilder text = new StringBuilder("static const uint64 Random64[781] = {\n");
+            for (int i = 0; i < PolyglotKeys.TABLE_SIZE; i++) {
+                text.append(String.format("   U64(0x%016X),%n", (long) i * 0x9E3779B97F4A7C15L));
+            }
+            Files.writeString(table, text.append("};\n"));
+            PolyglotKeys keys = PolyglotKeys.load(table);
+            Assertions.assertNotEquals(PolyglotKeys.standard().key(new ChessGame()), keys.key(new ChessGame()));
+        } finally {
+            Files.deleteIfExists(table);
+        }
+    }
+
+    static void writeBook(Path file) throws InvalidMoveException, IOException {
+        PolyglotBookWriter writer = new PolyglotBookWriter();
+        for (String[] line : BOOK) {
+            writer.add(play(line[0]), move(line[1]), Integer.parseInt(line[2]));
+        }
+        writer.write(file);
+    }
+
+    private static Path bundledBook() throws URISyntaxException {
+        return Path.of(PolyglotBookTests.class.getResource("/books/test-book.bin").toURI());
+    }
+
+    private static ChessGame play(String moves) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (String move : moves.split(" ")) {
+            if (!move.isEmpty()) {
+                game.makeMove(move(move));
+            }
+        }
+        return game;
+    }
+
+    private static ChessMove move(String coordinates) {
+        return new ChessMove(
+                new ChessPosition(coordinates.charAt(1) - '0', coordinates.charAt(0) - 'a' + 1),
+                new ChessPosition(coordinates.charAt(3) - '0', coordinates.charAt(2) - 'a' + 1),
+                null);
+    }
+}
@@ -0,0 +1,79 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchEngineTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void findsMateInOne() {
+        ChessGame game = Perft.loadPosition("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new SearchEngine().search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Wins Hanging Queen")
+    public void winsHangingQueen() {
+        ChessGame game = Perft.loadPosition("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new SearchEngine().search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 4), new ChessPosition(5, 4), null),
+                result.bestMove());
+        Assertions.assertTrue(result.score() > 300, "Winning a queen for a rook should score well");
+        Assertions.assertEquals(result.bestMove(), result.principalVariation().getFirst());
+    }
+
+    @Test
+    @DisplayName("Stops At Node Limit")
+    public void stopsAtNodeLimit() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+        SearchResult result = new SearchEngine().search(game, SearchLimits.nodes(20_000));
+
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.nodes() < 20_000 + 1024, "Searched " + result.nodes() + " nodes");
+    }
+
+    @Test
+    @DisplayName("Respects Deadline")
+    public void respectsDeadline() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.MIDDLEGAME.fen());
+        long start = System.nanoTime();
+        SearchResult result = new SearchEngine().search(game, SearchLimits.time(100));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(elapsedMillis < 300, "Search ran for " + elapsedMillis + " ms");
+        Assertions.assertTrue(result.nodesPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Game Restored After Search")
+    public void gameRestored() {
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+        ChessGame before = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+
+        new SearchEngine().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(before, game, "Search left the game changed");
+    }
+
+    @Test
+    @DisplayName("No Move When Checkmated")
+    public void noMoveWhenCheckmated() {
+        ChessGame game = Perft.loadPosition("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+        SearchResult result = new SearchEngine().search(game, SearchLimits.depth(3));
+
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(-SearchEngine.MATE, result.score());
+    }
+}
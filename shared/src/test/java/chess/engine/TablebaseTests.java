@@ -0,0 +1,208 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+public class TablebaseTests {
+
+    private static Path directory;
+    private static Tablebases tablebases;
+
+    @BeforeAll
+    public static void generate() throws IOException {
+        directory = Files.createTempDirectory("tablebases");
+        tablebases = Tablebases.generate(directory, "KQK", "KRK", "KPK");
+    }
+
+    @Test
+    @DisplayName("Generates Smaller Tables Too")
+    public void generatesDependencies() throws IOException {
+        Assertions.assertEquals(Set.of("KBK", "KNK", "KPK", "KQK", "KRK"), tablebases.materials());
+        Assertions.assertEquals(3, tablebases.maxPieces());
+
+        Tablebases reopened = Tablebases.open(directory);
+        Assertions.assertEquals(tablebases.materials(), reopened.materials());
+        ChessGame game = Perft.loadPosition("8/8/8/4k3/8/8/8/R2K4 b - - 0 1");
+        Assertions.assertEquals(tablebases.probe(game), reopened.probe(game));
+    }
+
+    @Test
+    @DisplayName("Longest Known Mates")
+    public void longestMates() {
+        Assertions.assertEquals(19, tablebases.table("KQK").orElseThrow().longestWin(), "KQK is mate in 10");
+        Assertions.assertEquals(31, tablebases.table("KRK").orElseThrow().longestWin(), "KRK is mate in 16");
+        Assertions.assertEquals(0, tablebases.table("KBK").orElseThrow().longestWin());
+        Assertions.assertEquals(0, tablebases.table("KNK").orElseThrow().longestWin());
+    }
+
+    @Test
+    @DisplayName("Mate In One And Checkmate")
+    public void mateInOne() {
+        TablebaseResult result = tablebases.probe(Perft.loadPosition("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1")).orElseThrow();
+        Assertions.assertEquals(new TablebaseResult(TablebaseResult.Outcome.WIN, 1), result);
+        Assertions.assertEquals(1, result.movesToMate());
+
+        Assertions.assertEquals(Optional.of(new TablebaseResult(TablebaseResult.Outcome.LOSS, 0)),
+                tablebases.probe(Perft.loadPosition("Q6k/8/6K1/8/8/8/8/8 b - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("King And Pawn Endings")
+    public void kingAndPawn() {
+        Assertions.assertEquals(Optional.of(new TablebaseResult(TablebaseResult.Outcome.DRAW, 0)),
+                tablebases.probe(Perft.loadPosition("4k3/4P3/4K3/8/8/8/8/8 b - - 0 1")), "Stalemate");
+
+        TablebaseResult result = tablebases.probe(Perft.loadPosition("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1"))
+                .orElseThrow();
+        Assertions.assertEquals(TablebaseResult.Outcome.WIN, result.outcome());
+        Assertions.assertEquals(Optional.of(result),
+                tablebases.probe(Perft.loadPosition("8/8/8/8/4p3/4k3/8/4K3 b - - 0 1")),
+                "Black's pawn should be looked up with the board turned around");
+
+        Assertions.assertEquals(TablebaseResult.Outcome.DRAW,
+                tablebases.probe(Perft.loadPosition("k7/8/K7/P7/8/8/8/8 w - - 0 1")).orElseThrow().outcome(),
+                "A rook pawn can't win when the defending king reaches the corner");
+    }
+
+    @Test
+    @DisplayName("Not Found Outside The Tables")
+    public void notFound() {
+        Assertions.assertTrue(tablebases.probe(new ChessGame()).isEmpty());
+        Assertions.assertTrue(tablebases.probe(Perft.loadPosition("4k3/8/8/8/8/8/8/4K2R w K - 0 1")).isEmpty(),
+                "Castling rights are not covered");
+        Assertions.assertTrue(tablebases.probe(Perft.loadPosition("4k3/8/8/8/8/8/8/2Q1KQ2 w - - 0 1")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Board Signature Matches Table Name")
+    public void signatureMatchesName() {
+        ChessBoard board = Perft.loadPosition("8/8/8/8/4p3/4k3/8/4K3 b - - 0 1").getBoard();
+        int white = Tablebase.sideSignature(board, ChessGame.TeamColor.WHITE);
+        int black = Tablebase.sideSignature(board, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(tablebases.table("KPK").orElseThrow().getSignature(),
+                Tablebase.signature(black, white));
+        Assertions.assertNotEquals(tablebases.table("KPK").orElseThrow().getSignature(),
+                Tablebase.signature(white, black));
+    }
+
+    @Test
+    @DisplayName("Probe Does Not Allocate")
+    public void probeDoesNotAllocate() {
+        ChessGame game = Perft.loadPosition("8/8/8/8/4p3/4k3/8/4K3 b - - 0 1");
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long sum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            sum += tablebases.probeValue(game);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            sum += tablebases.probeValue(game);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        Assertions.assertTrue(allocated < 10_000, allocated + " bytes allocated by 100000 probes, sum " + sum);
+    }
+
+    @Test
+    @DisplayName("Results Agree With One Move Ahead")
+    public void consistentWithChildren() {
+        Random random = new Random(7);
+        int checked = 0;
+        while (checked < 500) {
+            ChessGame game = randomPosition(random, random.nextBoolean() ? "KRK" : "KPK");
+            Optional<TablebaseResult> result = tablebases.probe(game);
+            if (result.isEmpty()) {
+                continue;
+            }
+            Assertions.assertEquals(result.get(), bestChild(game), "Position " + game.getBoard());
+            checked++;
+        }
+    }
+
+    @Test
+    @DisplayName("Engine Plays To The Tablebase Mate")
+    public void engineUsesTablebases() {
+        ChessGame game = Perft.loadPosition("8/8/3k4/8/8/8/8/R5K1 w - - 0 1");
+        TablebaseResult expected = tablebases.probe(game).orElseThrow();
+
+        SearchEngine engine = new SearchEngine();
+        engine.setTablebases(tablebases);
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(expected.movesToMate(), result.mateIn());
+
+        game.makeMove(PackedMove.fromChessMove(result.bestMove()));
+        Assertions.assertEquals(expected.plies() - 1, tablebases.probe(game).orElseThrow().plies(),
+                "The chosen move should keep the shortest mate");
+    }
+
+    /**
+     * Works out the position's result from the tablebase results of its children
+     */
+    private static TablebaseResult bestChild(ChessGame game) {
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(game.getTeamTurn())
+                    ? new TablebaseResult(TablebaseResult.Outcome.LOSS, 0)
+                    : new TablebaseResult(TablebaseResult.Outcome.DRAW, 0);
+        }
+        int shortestWin = Integer.MAX_VALUE;
+        int longestLoss = -1;
+        boolean draw = false;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            // bare kings are not in any table
+            TablebaseResult child = tablebases.probe(game)
+                    .orElse(new TablebaseResult(TablebaseResult.Outcome.DRAW, 0));
+            game.unmakeMove();
+            switch (child.outcome()) {
+                case LOSS -> shortestWin = Math.min(shortestWin, child.plies() + 1);
+                case WIN -> longestLoss = Math.max(longestLoss, child.plies() + 1);
+                case DRAW -> draw = true;
+            }
+        }
+        if (shortestWin != Integer.MAX_VALUE) {
+            return new TablebaseResult(TablebaseResult.Outcome.WIN, shortestWin);
+        }
+        return draw
+                ? new TablebaseResult(TablebaseResult.Outcome.DRAW, 0)
+                : new TablebaseResult(TablebaseResult.Outcome.LOSS, longestLoss);
+    }
+
+    private static ChessGame randomPosition(Random random, String material) {
+        ChessBoard board = new ChessBoard();
+        ChessGame.TeamColor[] colors = {ChessGame.TeamColor.WHITE, ChessGame.TeamColor.WHITE,
+                ChessGame.TeamColor.BLACK};
+        ChessPiece.PieceType[] types = {ChessPiece.PieceType.KING,
+                material.equals("KRK") ? ChessPiece.PieceType.ROOK : ChessPiece.PieceType.PAWN,
+                ChessPiece.PieceType.KING};
+        for (int i = 0; i < types.length; i++) {
+            ChessPosition position;
+            do {
+                position = ChessPosition.of(random.nextInt(8) + 1, random.nextInt(8) + 1);
+            } while (board.getPiece(position) != null);
+            board.addPiece(position, ChessPiece.of(colors[i], types[i]));
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(random.nextBoolean() ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK);
+        return game;
+    }
+}
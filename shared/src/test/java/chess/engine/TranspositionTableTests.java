@@ -0,0 +1,95 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Entries Round Trip")
+    public void entriesRoundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        Assertions.assertEquals(1 << 16, table.capacity());
+
+        table.store(0x1234_5678_9ABC_DEF0L, 0x7ABCD, -SearchEngine.MATE + 3, 12, TranspositionTable.LOWER_BOUND);
+        long entry = table.probe(0x1234_5678_9ABC_DEF0L);
+        Assertions.assertNotEquals(0L, entry);
+        Assertions.assertEquals(0x7ABCD, TranspositionTable.move(entry));
+        Assertions.assertEquals(-SearchEngine.MATE + 3, TranspositionTable.score(entry));
+        Assertions.assertEquals(12, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+    }
+
+    @Test
+    @DisplayName("Other Key In Same Slot Misses")
+    public void otherKeyMisses() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+        long sameSlot = key + ((long) table.capacity() << 8);
+
+        table.store(key, 1, 50, 3, TranspositionTable.EXACT);
+        Assertions.assertEquals(0L, table.probe(sameSlot));
+        Assertions.assertEquals(0.0, table.hitRate(), 1e-9, "Nothing was found yet");
+    }
+
+    @Test
+    @DisplayName("Deeper Entry Kept In Same Search")
+    public void deeperEntryKept() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 7L;
+        long sameSlot = key + ((long) table.capacity() << 8);
+
+        table.store(key, 1, 10, 8, TranspositionTable.EXACT);
+        table.store(sameSlot, 2, 20, 2, TranspositionTable.EXACT);
+        Assertions.assertNotEquals(0L, table.probe(key), "Shallow entry replaced a deeper one");
+
+        table.newSearch();
+        table.store(sameSlot, 2, 20, 2, TranspositionTable.EXACT);
+        Assertions.assertNotEquals(0L, table.probe(sameSlot), "Entry from an old search was not replaced");
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Never Return Torn Entries")
+    public void concurrentWriters() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger corrupt = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    // few slots and many keys, so writers keep colliding
+                    long key = (i * 0x9E3779B97F4A7C15L + seed) & ~0xFF00L;
+                    table.store(key, (int) (key & 0xFFFFF), (short) key, 4, TranspositionTable.EXACT);
+                    long entry = table.probe(key ^ 0x100L);
+                    if (entry != 0 && TranspositionTable.move(entry) != (int) ((key ^ 0x100L) & 0xFFFFF)) {
+                        corrupt.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(0, corrupt.get());
+    }
+
+    @Test
+    @DisplayName("Search Fills Table")
+    public void searchFillsTable() {
+        TranspositionTable table = new TranspositionTable(1);
+        ChessGame game = Perft.loadPosition(Perft.ReferencePosition.KIWIPETE.fen());
+        new SearchEngine(table).search(game, SearchLimits.depth(4));
+
+        Assertions.assertTrue(table.hitRate() > 0, "Search never hit the table");
+        Assertions.assertTrue(table.fillPercentage() > 0, "Search stored nothing");
+        Assertions.assertNotEquals(0L, table.probe(game.getZobristKey()), "Root position was not stored");
+    }
+}
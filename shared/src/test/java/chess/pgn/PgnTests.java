@@ -0,0 +1,170 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.MoveList;
+import chess.PackedMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class PgnTests {
+
+    @Test
+    @DisplayName("Reads Every Game And Reports The Broken One")
+    public void readsSample() throws IOException {
+        List<PgnGame> games = new ArrayList<>();
+        List<PgnFormatException> errors = new ArrayList<>();
+        try (PgnReader reader = new PgnReader(Channels.newChannel(sample()))) {
+            while (reader.hasNext()) {
+                try {
+                    games.add(reader.next());
+                } catch (PgnFormatException e) {
+                    errors.add(e);
+                }
+            }
+        }
+
+        Assertions.assertEquals(5, games.size());
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertTrue(errors.get(0).getMessage().contains("Ke3"), errors.get(0).getMessage());
+        Assertions.assertEquals(38, errors.get(0).getLine());
+
+        PgnGame fischer = games.get(0);
+        Assertions.assertEquals("Fischer, Robert J.", fischer.tag("White"));
+        Assertions.assertEquals(85, fischer.moves().size());
+        Assertions.assertEquals(PgnGame.DRAW, fischer.result());
+
+        Assertions.assertEquals(4, games.get(3).moves().size());
+        Assertions.assertEquals(PgnGame.UNFINISHED, games.get(3).result(), "No result marker and no Result tag");
+        Assertions.assertEquals(PgnGame.BLACK_WINS, games.get(4).result(), "The movetext result wins over the tag");
+    }
+
+    @Test
+    @DisplayName("Comments, Variations, Escapes And UTF-8")
+    public void skipsAnnotations() throws IOException, InvalidMoveException {
+        PgnGame game = readAll().get(1);
+        Assertions.assertEquals("Annotated \"quotes\" and \\ slashes", game.tag("Event"));
+        Assertions.assertEquals("Ünal, Çağrı", game.tag("White"));
+        Assertions.assertEquals(7, game.moves().size());
+        Assertions.assertTrue(game.replay().getGameStatus().checkmate());
+    }
+
+    @Test
+    @DisplayName("Starts From A FEN Tag With En Passant")
+    public void startsFromFen() throws IOException, InvalidMoveException {
+        PgnGame game = readAll().get(2);
+        Assertions.assertEquals(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null),
+                game.moves().get(0));
+        Assertions.assertEquals("8/8/3k4/8/8/8/3K4/8 w - - 0 42", game.replay().toFen());
+    }
+
+    @Test
+    @DisplayName("Written Games Read Back The Same")
+    public void roundTrip() throws IOException {
+        List<PgnGame> games = readAll();
+        byte[] written = write(games);
+        List<PgnGame> reread = new ArrayList<>();
+        PgnReader.forEach(Channels.newChannel(new ByteArrayInputStream(written)), reread::add);
+
+        Assertions.assertEquals(games.size(), reread.size());
+        for (int i = 0; i < games.size(); i++) {
+            Assertions.assertEquals(games.get(i).moves(), reread.get(i).moves());
+            Assertions.assertEquals(games.get(i).result(), reread.get(i).result());
+            for (Map.Entry<String, String> tag : games.get(i).tags().entrySet()) {
+                if (!tag.getKey().equals("Result")) {
+                    Assertions.assertEquals(tag.getValue(), reread.get(i).tag(tag.getKey()));
+                }
+            }
+        }
+        Assertions.assertArrayEquals(written, write(reread), "Writing is stable");
+
+        String text = new String(written, StandardCharsets.UTF_8);
+        Assertions.assertTrue(text.contains("[Site \"?\"]"), "Missing roster tags are filled in");
+        Assertions.assertTrue(text.contains("40. exd6 Kd7 41. Kd2 Kxd6 *"));
+        for (String line : text.split("\n")) {
+            Assertions.assertTrue(line.length() < 80, line);
+        }
+    }
+
+    @Test
+    @DisplayName("SAN Disambiguation, Promotion And Check")
+    public void san() {
+        ChessGame queens = ChessGame.fromFen("4k3/8/8/8/8/Q1Q5/8/Q1Q1K3 w - - 0 1");
+        Assertions.assertEquals("Qa1b2", San.toSan(queens, move(queens, "a1b2")));
+        ChessGame knights = ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1");
+        Assertions.assertEquals("Nbd2", San.toSan(knights, move(knights, "b1d2")));
+        ChessGame rooks = ChessGame.fromFen("4k3/8/8/8/R7/8/R7/4K3 w - - 0 1");
+        Assertions.assertEquals("R4a3", San.toSan(rooks, move(rooks, "a4a3")));
+
+        ChessGame promotion = ChessGame.fromFen("8/4P3/8/8/k7/8/8/4K3 w - - 0 1");
+        int queen = move(promotion, "e7e8q");
+        Assertions.assertEquals("e8=Q+", San.toSan(promotion, queen));
+        Assertions.assertEquals(queen, San.parse(promotion, "e8Q", new MoveList()));
+
+        ChessGame castling = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+        Assertions.assertEquals("O-O", San.toSan(castling, move(castling, "e1g1")));
+        Assertions.assertEquals(move(castling, "e1g1"), San.parse(castling, "0-0", new MoveList()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.parse(knights, "Nd2", new MoveList()),
+                "Ambiguous");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.parse(knights, "Ke3", new MoveList()));
+    }
+
+    private static int move(ChessGame game, String uci) {
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            ChessMove move = PackedMove.toChessMove(moves.get(i));
+            String text = square(move.getStartPosition()) + square(move.getEndPosition())
+                    + (move.getPromotionPiece() == null ? "" : "q");
+            if (text.equals(uci)) {
+                return moves.get(i);
+            }
+        }
+        throw new AssertionError(uci + " is not legal");
+    }
+
+    private static String square(ChessPosition position) {
+        return "" + (char) ('a' + position.getColumn() - 1) + position.getRow();
+    }
+
+    private static InputStream sample() {
+        return PgnTests.class.getResourceAsStream("/pgn/sample.pgn");
+    }
+
+    private static List<PgnGame> readAll() throws IOException {
+        List<PgnGame> games = new ArrayList<>();
+        try (PgnReader reader = new PgnReader(Channels.newChannel(sample()))) {
+            while (reader.hasNext()) {
+                try {
+                    games.add(reader.next());
+                } catch (PgnFormatException e) {
+                    // the broken game is checked in readsSample
+                }
+            }
+        }
+        return games;
+    }
+
+    private static byte[] write(List<PgnGame> games) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PgnWriter writer = new PgnWriter(Channels.newChannel(out))) {
+            for (PgnGame game : games) {
+                writer.write(game);
+            }
+        }
+        return out.toByteArray();
+    }
+}